@@ -0,0 +1,11 @@
+/**
+ * Agent interface for the AI players: given the player whose turn it is, the board and the bank,
+ * it chooses the action of the turn. Game asks the agent of each AI seat once per turn (see Game.setAgent).
+ */
+public interface Agent {
+    /**
+     * Chooses the action of the player's turn
+     * @return the Command to execute, or null if the agent has nothing to play
+     */
+    Command selectAction(Player player, Board board, Resources resources);
+}
@@ -0,0 +1,20 @@
+/**
+ * Base of the rules written against the shared TurnAnalysis: a rule only implements decide, and
+ * evaluate/createCommand are adapted from it here, each on a TurnAnalysis of its own call.
+ * RuleBasedAgent doesn't go through the adapter, it shares one analysis per turn through decide.
+ */
+public abstract class AnalysisRule implements Rule {
+
+    @Override
+    public abstract RuleDecision decide(TurnAnalysis turn);
+
+    @Override
+    public final double evaluate(Player player, Board board, Resources resources) {
+        return decide(new TurnAnalysis(player, board, resources)).getScore();
+    }
+
+    @Override
+    public final Command createCommand(Player player, Board board, Resources resources) {
+        return decide(new TurnAnalysis(player, board, resources)).createCommand();
+    }
+}
@@ -1,4 +1,5 @@
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -6,58 +7,207 @@ import java.util.List;
  * We also put other methods that the board should be responsible for to reduce dependency
  * (information specialist) such as building roads, settlements and cities as well as checking
  * if the edges are connected to the players.
+ *
+ * Ownership is mirrored in BoardBitboards (one seat per Color, so a board seats one player per color):
+ * the placement rules read the bitboards, and every Intersection/Edge setter reports back through
+ * intersectionChanged/edgeChanged so the two views never drift apart.
+ *
+ * The map is shared (BoardTopology) but each board still creates its own Tile, Intersection and Edge objects,
+ * since they are the public API and hold the owners: about 15 KB of the 23 KB a standard board allocates
+ * (java EngineBenchmarks board.new, B/op). A board is created once per game and once per MCTS worker, which
+ * restores that one rollout board for every rollout, so the pieces are not lazy views.
  */
 
 public class Board {
     // Creating the instances needed for the board such as the lists of tiles, intersections and edges
-    private List<Tile> tiles = new ArrayList<>();
-    private List<Intersection> intersections = new ArrayList<>();
-    private List<Edge> edges = new ArrayList<>();
+    private final List<Tile> tiles = new ArrayList<>();
+    private final List<Intersection> intersections = new ArrayList<>();
+    private final List<Edge> edges = new ArrayList<>();
+
+    // Read-only views handed out by the getters, created once so callers never pay for a copy
+    private final List<Tile> tilesView = Collections.unmodifiableList(tiles);
+    private final List<Intersection> intersectionsView = Collections.unmodifiableList(intersections);
+    private final List<Edge> edgesView = Collections.unmodifiableList(edges);
 
     //Introducing the robberTile that will track the robber position within the tiles
     private Tile robberTile;
 
+    // Shared, immutable IDs and connections of the map; this board only adds ownership and the robber on top
+    private final BoardTopology topology;
+
+    // Bit-per-piece ownership, kept in sync by the Intersection and Edge setters
+    private BoardBitboards bitboards;
+
+    // Legal roads, settlement spots and city upgrades per seat, kept in sync by the same setters
+    private MoveGenerator moves;
+
+    // Longest trail per seat, searched again only for the road components touched since the last query
+    private LongestRoad longestRoads;
+
+    // Bumped whenever a building or the robber changes, so cached production tables know when to rebuild
+    private int productionVersion;
+
+    // Zobrist keys of the settlements, cities, roads and robber (see StateHash), updated by every change to them
+    private long pieceHash;
+
+    // Victory point ledger per seat, updated at the moment of each build or undo so reading it is O(1)
+    private final int[] victoryPoints = new int[BoardBitboards.SEATS];
+
+    // Debug mode: every ledger read is cross-checked against a full scan of the intersections
+    // (enable for a whole run with -Dcatan.verifyLedger=true)
+    private boolean ledgerChecks = Boolean.getBoolean("catan.verifyLedger");
+
+    // Immutable index from token to the tiles carrying it, so a dice roll finds its tiles without scanning or allocating
+    private List<List<Tile>> tilesByToken = List.of();
+
     /**
      * Board constructor to create a map where the CATAN game will be hosted
      * We will use the Board config class to maintain SRP when creating the
-     * new board.
+     * new board. The map itself is generated once and shared (see BoardTopology),
+     * each board only creates its own tile, intersection and edge objects from it.
      */
     public Board() {
-        BoardConfig.buildMap(tiles, intersections, edges);
+        this(BoardTopology.standard());
+    }
+
+    /**
+     * Creates a larger (or smaller) hexagonal map for scale testing; radius 2 is the standard board
+     * @param radius number of tile rings around the center tile, in [1..BoardConfig.MAX_RADIUS]
+     */
+    public Board(int radius) {
+        this(BoardTopology.forRadius(radius));
+    }
+
+    Board(BoardTopology topology) {
+        this.topology = topology;
+        createPieces();
+        indexTilesByToken();
+
+        bitboards = new BoardBitboards(topology);
+        for (Intersection i : intersections) i.attachTo(this);
+        moves = new MoveGenerator(bitboards, topology);
+        longestRoads = new LongestRoad(topology);
+        for (Edge e : edges) e.attachTo(this);
 
         //Assigning the terrain desert to the robber tile through a for loop over all the tiles
         for (Tile t : tiles) {
             if (t.getTerrain() == Terrain.DESERT) {
                 robberTile = t;
+                pieceHash = robberKey(t);
                 break;
             }
         }
     }
 
-    // Getter method to return the list of tiles per token
+    /**
+     * Creates this board's intersections, edges and tiles from the topology, linked the same way
+     * (and in the same order) as BoardConfig links them
+     */
+    private void createPieces() {
+        for (int n = 0; n < topology.getNodeCount(); n++) {
+            intersections.add(new Intersection(n));
+        }
+        for (int e = 0; e < topology.getEdgeCount(); e++) {
+            edges.add(new Edge(e, intersections.get(topology.edgeNodeA(e)), intersections.get(topology.edgeNodeB(e))));
+        }
+        for (int t = 0; t < topology.getTileCount(); t++) {
+            List<Intersection> corners = new ArrayList<>(6);
+            for (int c = 0; c < 6; c++) {
+                corners.add(intersections.get(topology.tileNode(t, c)));
+            }
+            tiles.add(new Tile(t, topology.tileTerrain(t), topology.tileToken(t), corners, topology.tileQ(t), topology.tileR(t)));
+        }
+        for (int n = 0; n < topology.getNodeCount(); n++) {
+            Intersection node = intersections.get(n);
+            for (int k = topology.nodeEdgeStart(n); k < topology.nodeEdgeEnd(n); k++) {
+                node.addEdge(edges.get(topology.nodeEdge(k)));
+            }
+            for (int k = topology.nodeTileStart(n); k < topology.nodeTileEnd(n); k++) {
+                node.addTile(tiles.get(topology.nodeTile(k)));
+            }
+        }
+    }
+
+    // Getter method to return the (unmodifiable) list of tiles per token, looked up in the token index
     public List<Tile> getTilesByToken(int token) {
-        List<Tile> result = new ArrayList<>();
-        for (Tile t : this.tiles) {
-            if (t.getToken() == token) {
-                result.add(t);
+        if (token < 0 || token >= tilesByToken.size()) return List.of();
+        return tilesByToken.get(token);
+    }
+
+    /**
+     * Builds the token index from the topology's tile ids per token. It runs once at construction,
+     * so lookups always match the tiles.
+     */
+    private void indexTilesByToken() {
+        List<List<Tile>> index = new ArrayList<>(topology.maxToken() + 1);
+        for (int token = 0; token <= topology.maxToken(); token++) {
+            Tile[] bucket = new Tile[topology.tokenTileCount(token)];
+            for (int k = 0; k < bucket.length; k++) {
+                bucket[k] = tiles.get(topology.tokenTile(token, k));
             }
+            index.add(List.of(bucket));
         }
-        return result;
+        tilesByToken = List.copyOf(index);
     }
 
-    // Getter method to return the list of Tiles
+    // Getter method to return the read-only view of the Tiles
     public List<Tile> getTiles() {
-        return List.copyOf(tiles);
+        return tilesView;
     }
 
-    // Getter method to return the list of Intersections
+    // Getter method to return the read-only view of the Intersections (ordered by node ID)
     public List<Intersection> getIntersections() {
-        return List.copyOf(intersections);
+        return intersectionsView;
     }
 
-    // Getter method to return the list of Edges
+    // Getter method to return the read-only view of the Edges (ordered by edge ID)
     public List<Edge> getEdges() {
-        return List.copyOf(edges);
+        return edgesView;
+    }
+
+    // Indexed accessors so hot loops can walk the board without any iterator or copy
+    public int tileCount() {
+        return tiles.size();
+    }
+
+    public Tile tileAt(int index) {
+        return tiles.get(index);
+    }
+
+    public int intersectionCount() {
+        return intersections.size();
+    }
+
+    public Intersection intersectionAt(int index) {
+        return intersections.get(index);
+    }
+
+    public int edgeCount() {
+        return edges.size();
+    }
+
+    public Edge edgeAt(int index) {
+        return edges.get(index);
+    }
+
+    /**
+     * Constant time lookup of the intersection with the given node ID
+     * @return the intersection, or null if no intersection has that ID
+     */
+    public Intersection getIntersection(int nodeId) {
+        if (nodeId < 0 || nodeId >= intersections.size()) return null;
+        return intersections.get(nodeId);
+    }
+
+    /**
+     * Constant time lookup of the edge between two node IDs (a node has at most 3 edges to check), in either order
+     * @return the edge, or null if the nodes don't exist or are not adjacent
+     */
+    public Edge getEdge(int nodeA, int nodeB) {
+        int n = intersections.size();
+        if (nodeA < 0 || nodeA >= n || nodeB < 0 || nodeB >= n) return null;
+        int edgeId = topology.edgeBetween(nodeA, nodeB);
+        return edgeId == -1 ? null : edges.get(edgeId);
     }
 
     /**
@@ -66,11 +216,10 @@ public class Board {
      */
     public boolean buildRoad(Player p, Edge e) {
         // Checking if the edge has an owner already
-        if (e.getOwner() != null) return false;
+        if (bitboards.isEdgeOwned(e.getEdgeID())) return false;
 
         // Checking if the edge is connected to player
-        boolean connected = isEdgeConnectedToPlayer(p, e);
-        if (!connected) return false;
+        if (!isEdgeConnectedToPlayer(p, e)) return false;
 
         // Setting the owner to the edge
         e.setOwner(p);
@@ -90,29 +239,14 @@ public class Board {
      * @param isInitialPlacement if true, we skip the "must connect to road" rule.
      */
     public boolean buildSettlement(Player p, Intersection i, boolean isInitialPlacement) {
-        if (i.getOwner() != null) return false;
-
-        // distance rule: adjacent intersections must be vacant
-        for (Intersection neighbor : i.getAdjacentIntersections()) {
-            if (neighbor.getOwner() != null) {
-                return false;
-            }
-        }
+        // the spot must be free and the distance rule says adjacent intersections must be vacant
+        if (!isSettlementSpotFree(i)) return false;
 
         // connection rule (skip if initial placement)
-        if (!isInitialPlacement) {
-            boolean hasPlayerRoad = false;
-            for (Edge e : i.getEdges()) {
-                if (p.equals(e.getOwner())) {
-                    hasPlayerRoad = true;
-                    break;
-                }
-            }
-            if (!hasPlayerRoad) return false;
-        }
+        if (!isInitialPlacement && !hasRoadAt(p, i)) return false;
 
-        i.setOwner(p);
-        i.setCity(false);
+        // owner and city flag in one change, so the board refreshes once
+        i.setPiece(p, false);
         p.recordSettlementBuilt(i.getNodeID());
         return true;
     }
@@ -133,26 +267,211 @@ public class Board {
         return true;
     }
 
-    // Checking if the edge is connected to player through different checks
-    private boolean isEdgeConnectedToPlayer(Player p, Edge e) {
-        Intersection a = e.getIntersection1();
-        Intersection b = e.getIntersection2();
+    /**
+     * Checks the free-spot and distance rules of a settlement in a few bitwise operations
+     * @return true if nobody owns the intersection nor any of its neighbors
+     */
+    public boolean isSettlementSpotFree(Intersection i) {
+        int node = i.getNodeID();
+        return !bitboards.isOccupied(node) && !bitboards.anyNeighborOccupied(node);
+    }
 
-        // Connected if endpoint is player's settlement/city
-        if (p.equals(a.getOwner()) || p.equals(b.getOwner())) {
-            return true;
-        }
+    /**
+     * @return true if one of the player's roads touches the intersection
+     */
+    public boolean hasRoadAt(Player p, Intersection i) {
+        return bitboards.hasRoadAt(p.getSeat(), i.getNodeID());
+    }
+
+    /**
+     * Checks if the edge is connected to player: an endpoint is the player's settlement/city,
+     * or an endpoint touches another road of the player
+     */
+    public boolean isEdgeConnectedToPlayer(Player p, Edge e) {
+        return bitboards.isEdgeConnected(p.getSeat(), e.getEdgeID());
+    }
 
-        // Connected if endpoint touches another player-owned road
-        for (Edge ea : a.getEdges()) {
-            if (p.equals(ea.getOwner())) return true;
+    /**
+     * @return the vpoints of the player on this board (1 per settlement, 2 per city), read from the ledger
+     */
+    public int getVictoryPoints(Player p) {
+        int vp = victoryPoints[p.getSeat()];
+        if (ledgerChecks) {
+            int scanned = scanVictoryPoints(p.getSeat());
+            if (scanned != vp) {
+                throw new IllegalStateException("VP ledger out of sync for " + p.getColor()
+                        + ": ledger=" + vp + ", scan=" + scanned);
+            }
         }
-        for (Edge eb : b.getEdges()) {
-            if (p.equals(eb.getOwner())) return true;
+        return vp;
+    }
+
+    /**
+     * @return the legal-move sets of every seat on this board, updated on each build or undo
+     */
+    public MoveGenerator getMoves() {
+        return moves;
+    }
+
+    /**
+     * @return the length of the player's longest road: the longest trail of connected roads that uses each road
+     * once and does not pass through another player's settlement or city
+     */
+    public int getLongestRoad(Player p) {
+        return longestRoads.longestRoad(p.getSeat());
+    }
+
+    /**
+     * O(1) winner check against the ledger
+     * @param target the vpoints needed to win
+     * @return true if any seat has reached the target
+     */
+    public boolean hasPlayerReached(int target) {
+        for (int vp : victoryPoints) {
+            if (vp >= target) return true;
         }
         return false;
     }
 
+    // Turns the ledger cross-check (debug mode) on or off for this board
+    public void setLedgerChecks(boolean enabled) {
+        this.ledgerChecks = enabled;
+    }
+
+    // Full scan of the intersections, only used to cross-check the ledger in debug mode
+    private int scanVictoryPoints(int seat) {
+        int vp = 0;
+        for (Intersection i : intersections) {
+            Player owner = i.getOwner();
+            if (owner != null && owner.getSeat() == seat) {
+                vp += i.isCity() ? 2 : 1;
+            }
+        }
+        return vp;
+    }
+
+    // Shared topology of this board: the compressed adjacency rows (node -> edges, neighbors, tiles,
+    // tile -> nodes, edge -> endpoints) that hot paths walk instead of the object lists
+    BoardTopology getTopology() {
+        return topology;
+    }
+
+    // Seat owning a settlement or city on the node, -1 if it is free (read from the bitboards)
+    int ownerSeat(int node) {
+        return bitboards.nodeSeat(node);
+    }
+
+    // True if the node holds a city
+    boolean isCityAt(int node) {
+        return bitboards.isCity(node);
+    }
+
+    // Changes every time a settlement, city or the robber moves: what each roll produces may have changed
+    int getProductionVersion() {
+        return productionVersion;
+    }
+
+    // Number of longs saveOwnership writes
+    int ownershipWords() {
+        return bitboards.wordCount();
+    }
+
+    // Copies the settlements, cities and roads of every seat (the raw bitboard words) into out
+    void saveOwnership(long[] out) {
+        bitboards.copyTo(out, 0);
+    }
+
+    /**
+     * Puts back the ownership saveOwnership wrote, going through the Intersection and Edge setters for the
+     * pieces that differ only, so the ledger, the move sets and the longest roads follow as they do for a build
+     * @param saved words written by saveOwnership on a board of the same topology
+     * @param bySeat the player sitting at each seat
+     */
+    void restoreOwnership(long[] saved, Player[] bySeat) {
+        int seats = BoardBitboards.SEATS;
+        int nodeWords = topology.getNodeWords();
+        int edgeWords = topology.getEdgeWords();
+        int cityBase = seats * nodeWords;
+        int roadBase = 2 * cityBase;
+
+        // only the bits that differ from the current words are visited
+        for (int w = 0; w < nodeWords; w++) {
+            long diff = 0;
+            for (int s = 0; s < seats; s++) {
+                diff |= saved[s * nodeWords + w] ^ bitboards.settlementWord(s, w);
+                diff |= saved[cityBase + s * nodeWords + w] ^ bitboards.cityWord(s, w);
+            }
+            while (diff != 0) {
+                int n = (w << 6) + Long.numberOfTrailingZeros(diff);
+                long bit = diff & -diff;
+                diff &= diff - 1;
+                Intersection node = intersections.get(n);
+                int seat = -1;
+                boolean city = false;
+                for (int s = 0; s < seats; s++) {
+                    if ((saved[s * nodeWords + w] & bit) != 0) seat = s;
+                    if ((saved[cityBase + s * nodeWords + w] & bit) != 0) { seat = s; city = true; }
+                }
+                node.setPiece(seat < 0 ? null : bySeat[seat], city);
+            }
+        }
+        for (int w = 0; w < edgeWords; w++) {
+            long diff = 0;
+            for (int s = 0; s < seats; s++) {
+                diff |= saved[roadBase + s * edgeWords + w] ^ bitboards.roadWord(s, w);
+            }
+            while (diff != 0) {
+                int e = (w << 6) + Long.numberOfTrailingZeros(diff);
+                long bit = diff & -diff;
+                diff &= diff - 1;
+                int seat = -1;
+                for (int s = 0; s < seats; s++) {
+                    if ((saved[roadBase + s * edgeWords + w] & bit) != 0) seat = s;
+                }
+                edges.get(e).setOwner(seat < 0 ? null : bySeat[seat]);
+            }
+        }
+    }
+
+    // Called by Intersection whenever its owner or city flag changes
+    void intersectionChanged(Intersection i) {
+        int node = i.getNodeID();
+
+        // the bitboards still hold the previous state
+        int oldSeat = bitboards.nodeSeat(node);
+        boolean oldCity = oldSeat >= 0 && bitboards.isCity(node);
+        Player owner = i.getOwner();
+        int seat = owner == null ? -1 : owner.getSeat();
+        boolean city = seat >= 0 && i.isCity();
+        // a setter writing back the same piece (or a city flag on a free node) changes nothing on the board
+        if (seat == oldSeat && city == oldCity) return;
+
+        // take the old piece off the ledger and the hash, put the new one on
+        if (oldSeat >= 0) victoryPoints[oldSeat] -= oldCity ? 2 : 1;
+        if (seat >= 0) victoryPoints[seat] += city ? 2 : 1;
+        pieceHash ^= StateHash.nodeKey(node, oldSeat, oldCity) ^ StateHash.nodeKey(node, seat, city);
+        bitboards.refreshNode(node, seat, city);
+        productionVersion++;
+
+        // an upgrade keeps the owner: no spot, road or trail depends on the city flag
+        if (seat == oldSeat) return;
+        moves.nodeChanged(node, oldSeat, seat);
+        longestRoads.nodeChanged(node, seat, bitboards.hasAnyRoadAt(node));
+    }
+
+    // Called by Edge whenever its owner changes
+    void edgeChanged(Edge e) {
+        int edge = e.getEdgeID();
+        int oldSeat = bitboards.edgeSeat(edge);
+        Player owner = e.getOwner();
+        int seat = owner == null ? -1 : owner.getSeat();
+        if (seat == oldSeat) return;
+        pieceHash ^= StateHash.edgeKey(edge, oldSeat) ^ StateHash.edgeKey(edge, seat);
+        bitboards.refreshEdge(edge, seat);
+        moves.edgeChanged(edge, oldSeat, seat);
+        longestRoads.edgeChanged(edge, oldSeat, seat);
+    }
+
     /**
      * Getter method to return the tile where the robber is at
      * @return the tile where the robber is at
@@ -166,6 +485,17 @@ public class Board {
      * @param robberTile teh tile where the robber is at
      */
     public void setRobberTile(Tile robberTile) {
+        pieceHash ^= robberKey(this.robberTile) ^ robberKey(robberTile);
         this.robberTile = robberTile;
+        productionVersion++;
+    }
+
+    private static long robberKey(Tile tile) {
+        return tile == null ? 0L : StateHash.robberKey(tile.getTileID());
+    }
+
+    // Getter method to return the hash of the pieces and the robber, the board's part of the game state hash
+    long getPieceHash() {
+        return pieceHash;
     }
 }
@@ -0,0 +1,227 @@
+/**
+ * BoardBitboards keeps a bit-per-piece copy of the board ownership so the placement rules become a few
+ * bitwise operations instead of walks over Intersection and Edge objects.
+ *
+ * Per seat (Color ordinal) it holds the settlement bits and the city bits of the 54 nodes (one long) and
+ * the road bits of the 72 edges (a pair of longs). Words are stored as long arrays sized to the board so a
+ * larger map just uses more words. Settlement and city bits are disjoint: upgrading moves the bit.
+ *
+ * Neighbor and incident-edge checks walk the (at most 3) entries of the node's row in the shared BoardTopology,
+ * so they cost the same on any board size. The Intersection and Edge setters report every ownership change
+ * through Board, so builds, undo() paths and direct setOwner calls all stay in sync.
+ */
+final class BoardBitboards {
+
+    static final int SEATS = Color.values().length;
+
+    private final int nodeCount;
+    private final int edgeCount;
+    private final int nodeWords;
+    private final int edgeWords;
+
+    // shared topology: neighbors and incident edges of each node, endpoints of each edge
+    private final BoardTopology topology;
+
+    // per seat ownership: [seat * words + w]
+    private final long[] settlements;
+    private final long[] cities;
+    private final long[] roads;
+
+    // union of all seats, kept so the distance rule does not need to OR the seats every time
+    private final long[] occupiedNodes;
+    private final long[] ownedEdges;
+
+    BoardBitboards(BoardTopology topology) {
+        this.topology = topology;
+        nodeCount = topology.getNodeCount();
+        edgeCount = topology.getEdgeCount();
+        nodeWords = topology.getNodeWords();
+        edgeWords = topology.getEdgeWords();
+
+        settlements = new long[SEATS * nodeWords];
+        cities = new long[SEATS * nodeWords];
+        roads = new long[SEATS * edgeWords];
+        occupiedNodes = new long[nodeWords];
+        ownedEdges = new long[edgeWords];
+    }
+
+    // ---- sync from the object model ----
+
+    /**
+     * Rewrites the bits of one node from its current owner (-1 = none) and city flag
+     */
+    void refreshNode(int node, int seat, boolean isCity) {
+        int w = node >>> 6;
+        long bit = 1L << node;
+        for (int s = 0; s < SEATS; s++) {
+            settlements[s * nodeWords + w] &= ~bit;
+            cities[s * nodeWords + w] &= ~bit;
+        }
+        if (seat < 0) {
+            occupiedNodes[w] &= ~bit;
+            return;
+        }
+        occupiedNodes[w] |= bit;
+        if (isCity) cities[seat * nodeWords + w] |= bit;
+        else settlements[seat * nodeWords + w] |= bit;
+    }
+
+    /**
+     * Rewrites the bits of one edge from its current owner (-1 = none)
+     */
+    void refreshEdge(int edge, int seat) {
+        int w = edge >>> 6;
+        long bit = 1L << edge;
+        for (int s = 0; s < SEATS; s++) {
+            roads[s * edgeWords + w] &= ~bit;
+        }
+        if (seat < 0) {
+            ownedEdges[w] &= ~bit;
+            return;
+        }
+        ownedEdges[w] |= bit;
+        roads[seat * edgeWords + w] |= bit;
+    }
+
+    // ---- queries ----
+
+    boolean isOccupied(int node) {
+        return (occupiedNodes[node >>> 6] & (1L << node)) != 0;
+    }
+
+    boolean isEdgeOwned(int edge) {
+        return (ownedEdges[edge >>> 6] & (1L << edge)) != 0;
+    }
+
+    // Distance rule: true if any neighbor of the node holds a settlement or city
+    boolean anyNeighborOccupied(int node) {
+        for (int k = topology.nodeEdgeStart(node); k < topology.nodeEdgeEnd(node); k++) {
+            if (isOccupied(topology.nodeNeighbor(k))) return true;
+        }
+        return false;
+    }
+
+    // Seat holding a settlement or city on the node, -1 if the node is free
+    int nodeSeat(int node) {
+        if (!isOccupied(node)) return -1;
+        for (int s = 0; s < SEATS; s++) {
+            if (ownsNode(s, node)) return s;
+        }
+        return -1;
+    }
+
+    // Seat owning the road on the edge, -1 if the edge is free
+    int edgeSeat(int edge) {
+        if (!isEdgeOwned(edge)) return -1;
+        int i = edge >>> 6;
+        long bit = 1L << edge;
+        for (int s = 0; s < SEATS; s++) {
+            if ((roads[s * edgeWords + i] & bit) != 0) return s;
+        }
+        return -1;
+    }
+
+    // True if the node holds a city (of any seat)
+    boolean isCity(int node) {
+        int w = node >>> 6;
+        long bit = 1L << node;
+        for (int s = 0; s < SEATS; s++) {
+            if ((cities[s * nodeWords + w] & bit) != 0) return true;
+        }
+        return false;
+    }
+
+    // True if the seat holds a settlement or a city on the node
+    boolean ownsNode(int seat, int node) {
+        int i = seat * nodeWords + (node >>> 6);
+        return ((settlements[i] | cities[i]) & (1L << node)) != 0;
+    }
+
+    // True if one of the seat's roads touches the node
+    boolean hasRoadAt(int seat, int node) {
+        int seatBase = seat * edgeWords;
+        for (int k = topology.nodeEdgeStart(node); k < topology.nodeEdgeEnd(node); k++) {
+            int edge = topology.nodeEdge(k);
+            if ((roads[seatBase + (edge >>> 6)] & (1L << edge)) != 0) return true;
+        }
+        return false;
+    }
+
+    // True if a road of any seat touches the node
+    boolean hasAnyRoadAt(int node) {
+        for (int k = topology.nodeEdgeStart(node); k < topology.nodeEdgeEnd(node); k++) {
+            if (isEdgeOwned(topology.nodeEdge(k))) return true;
+        }
+        return false;
+    }
+
+    // Connectivity rule for roads: an endpoint is the seat's building or touches one of the seat's roads
+    boolean isEdgeConnected(int seat, int edge) {
+        int a = topology.edgeNodeA(edge);
+        int b = topology.edgeNodeB(edge);
+        return ownsNode(seat, a) || ownsNode(seat, b) || hasRoadAt(seat, a) || hasRoadAt(seat, b);
+    }
+
+    // One word of the seat's settlement bits (cities excluded)
+    long settlementWord(int seat, int w) {
+        return settlements[seat * nodeWords + w];
+    }
+
+    // One word of the seat's city bits
+    long cityWord(int seat, int w) {
+        return cities[seat * nodeWords + w];
+    }
+
+    // One word of the seat's road bits
+    long roadWord(int seat, int w) {
+        return roads[seat * edgeWords + w];
+    }
+
+    int settlementCount(int seat) {
+        return popCount(settlements, seat * nodeWords, nodeWords);
+    }
+
+    int cityCount(int seat) {
+        return popCount(cities, seat * nodeWords, nodeWords);
+    }
+
+    int roadCount(int seat) {
+        return popCount(roads, seat * edgeWords, edgeWords);
+    }
+
+    int getNodeCount() {
+        return nodeCount;
+    }
+
+    int getEdgeCount() {
+        return edgeCount;
+    }
+
+    // ---- raw words (snapshots) ----
+
+    // Number of longs copyTo writes: settlements, cities, then roads of every seat
+    int wordCount() {
+        return SEATS * (2 * nodeWords + edgeWords);
+    }
+
+    // Copies the per seat settlement, city and road words into out, starting at offset
+    void copyTo(long[] out, int offset) {
+        System.arraycopy(settlements, 0, out, offset, settlements.length);
+        System.arraycopy(cities, 0, out, offset + settlements.length, cities.length);
+        System.arraycopy(roads, 0, out, offset + settlements.length + cities.length, roads.length);
+    }
+
+    // ---- helpers ----
+
+    static int words(int bits) {
+        return (bits + 63) >>> 6;
+    }
+
+    private static int popCount(long[] words, int base, int length) {
+        int count = 0;
+        for (int w = 0; w < length; w++) {
+            count += Long.bitCount(words[base + w]);
+        }
+        return count;
+    }
+}
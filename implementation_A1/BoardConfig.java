@@ -2,92 +2,175 @@ import java.util.*;
 
 /**
  * BoardConfig is a class that is responsible for building the map, setup for Terrains, Tokens per their tiles
- * and the coordination for tiles and the rings as well as assigning the ids per position (vertex, axial, point and edge).
+ * and the coordination for tiles and the rings as well as assigning the ids per position (vertex lattice, axial and edge).
  */
 final class BoardConfig {
 
     private BoardConfig() {}
 
+    // Corner offsets of a flat-top hex on the integer vertex lattice, in the corner order used everywhere:
+    // [top-left, top-right, right, bottom-right, bottom-left, left].
+    // X is counted in size/2 units (hex center at 3q) and Y in sqrt(3)/2 * size units (hex center at 2r + q),
+    // so every corner lands on exact integers and corners shared by neighboring hexes get the same key.
+    private static final int[] CORNER_X = {-1, 1, 2, 1, -1, -2};
+    private static final int[] CORNER_Y = {-1, -1, 0, 1, 1, 0};
+
+    // Lattice (X, Y) of node 0..53 of the standard map, frozen so node IDs (and the edge IDs sorted from them)
+    // stay exactly the ones the map has always used: 0..5 are the center tile corners starting top-right.
+    private static final int[] STANDARD_NODE_LATTICE = {
+            1, -1,  2, 0,  1, 1,  -1, 1,  -2, 0,  -1, -1,
+            4, -2,  4, 2,  -5, 3,  -7, -3,  -7, 3,  -5, -3,
+            8, 2,  8, -2,  -2, 4,  1, 3,  1, -3,  -2, -4,
+            -4, -4,  -4, 4,  -4, -2,  -4, 2,  -1, -5,  -1, 5,
+            8, 0,  5, 1,  5, -1,  -8, -2,  -7, 1,  -8, 2,
+            7, 1,  7, -1,  2, -4,  2, 4,  -5, 1,  4, 0,
+            4, 4,  4, -4,  1, 5,  1, -5,  -5, -1,  -8, 0,
+            -7, -1,  -4, 0,  -2, 2,  -2, -2,  7, -3,  7, 3,
+            5, -3,  5, 3,  -1, -3,  -1, 3,  2, -2,  2, 2
+    };
+
+    // Radius of the standard 19-tile map, and the largest radius whose node and edge IDs still fit the
+    // 16 id bits of an encoded move (see MoveGenerator)
+    static final int STANDARD_RADIUS = 2;
+    static final int MAX_RADIUS = 84;
+
     /**
      * Creates a valid 19-hex map with:
      * - 19 tiles
      * - 54 intersections
      * - edges between intersections
-     *
-     * Note: This is a valid Catan topology generator.
-     * The "exact node id numbering from the picture" can be enforced here if needed later.
      */
     static void buildMap(List<Tile> tilesOut, List<Intersection> intersectionsOut, List<Edge> edgesOut) {
-        // 1) Create tiles with axial coordinates
-        List<Axial> tileCoords = tileIdAxialCoords();
+        buildMap(STANDARD_RADIUS, tilesOut, intersectionsOut, edgesOut);
+    }
 
-        Terrain[] terrainById = terrainByTileId();
-        int[] tokenById = tokenByTileId();
+    /**
+     * Creates a hexagonal map of the given radius (the center tile plus that many rings around it) with:
+     * - 3r(r+1)+1 tiles
+     * - 6(r+1)^2 intersections
+     * - 9r^2+15r+6 edges between intersections
+     *
+     * Node identity comes from exact integer corner coordinates (no floating point), looked up in a dense grid of
+     * the lattice points the map covers. The standard radius keeps its node IDs from the numbering table; any other
+     * radius numbers the nodes in the order they are first met walking the tiles and their corners. Edge IDs follow
+     * the order of their (lower, higher) node IDs.
+     * @param radius number of rings around the center tile, in [1..MAX_RADIUS]
+     */
+    static void buildMap(int radius, List<Tile> tilesOut, List<Intersection> intersectionsOut, List<Edge> edgesOut) {
+        if (radius < 1 || radius > MAX_RADIUS) {
+            throw new IllegalArgumentException("radius must be in [1.." + MAX_RADIUS + "]. Found: " + radius);
+        }
 
-        // 2) Create unique intersections (vertices)
-        Map<VertexKey, Intersection> vertexToIntersection = new HashMap<>();
-        List<List<Intersection>> tileCorners = new ArrayList<>();
-        double size = 10.0;
+        // 1) Create tiles with axial coordinates
+        List<Axial> tileCoords = tileIdAxialCoords(radius);
+        int tileCount = tileCoords.size();
+
+        Terrain[] terrainById = terrainByTileId(tileCount);
+        int[] tokenById = tokenByTileId(tileCount);
+
+        // 2) Index the intersections by their lattice point in a dense grid covering the map's corners
+        //    (the standard map creates them upfront with their fixed IDs)
+        int nodeCount = 6 * (radius + 1) * (radius + 1);
+        int edgeCount = 9 * radius * radius + 15 * radius + 6;
+        int offsetX = 3 * radius + 2;
+        int offsetY = 2 * radius + 1;
+        int height = 2 * offsetY + 1;
+        Intersection[] nodeAtLattice = new Intersection[(2 * offsetX + 1) * height];
+        Intersection[] nodes = new Intersection[nodeCount];
+        int nextNodeId = 0;
+        if (radius == STANDARD_RADIUS) {
+            for (; nextNodeId < nodeCount; nextNodeId++) {
+                nodes[nextNodeId] = new Intersection(nextNodeId);
+                int x = STANDARD_NODE_LATTICE[2 * nextNodeId] + offsetX;
+                int y = STANDARD_NODE_LATTICE[2 * nextNodeId + 1] + offsetY;
+                nodeAtLattice[x * height + y] = nodes[nextNodeId];
+            }
+        }
 
-        for (int tileId = 0; tileId < 19; tileId++) {
+        // 3) Find the corners of every tile on the lattice
+        List<List<Intersection>> tileCorners = new ArrayList<>(tileCount);
+        for (int tileId = 0; tileId < tileCount; tileId++) {
             Axial a = tileCoords.get(tileId);
-            Point center = axialToPointFlatTop(a, size);
-
-            List<Point> corners = hexCornersFlatTop(center, size);
             List<Intersection> intersectionsForTile = new ArrayList<>(6);
-
-            for (Point corner : corners) {
-                VertexKey key = new VertexKey(corner.x, corner.y);
-                Intersection inter = vertexToIntersection.get(key);
+            for (int c = 0; c < 6; c++) {
+                int cell = (3 * a.q + CORNER_X[c] + offsetX) * height + (2 * a.r + a.q + CORNER_Y[c] + offsetY);
+                Intersection inter = nodeAtLattice[cell];
                 if (inter == null) {
-                    inter = new Intersection(-1); // ID assigned later
-                    vertexToIntersection.put(key, inter);
+                    if (nextNodeId == nodeCount) {
+                        throw new IllegalStateException("Tile " + tileId + " corner " + c + " is not a node of the map");
+                    }
+                    inter = new Intersection(nextNodeId);
+                    nodes[nextNodeId++] = inter;
+                    nodeAtLattice[cell] = inter;
                 }
                 intersectionsForTile.add(inter);
             }
             tileCorners.add(intersectionsForTile);
         }
+        if (nextNodeId != nodeCount) {
+            throw new IllegalStateException("Expected " + nodeCount + " intersections, found " + nextNodeId);
+        }
 
-        // 3) Assign node IDs BEFORE creating edges
-        List<Intersection> allIntersections = new ArrayList<>(vertexToIntersection.values());
-        assignNodeIds(allIntersections, tileCorners.get(0)); // BFS + deterministic IDs
-
-        // 4) Create edges with proper nodeIDs
-        Map<EdgeKey, Edge> edgeMap = new HashMap<>();
-        for (int tileId = 0; tileId < 19; tileId++) {
+        // 4) Find each node pair once, walking the tile sides (a node has at most 3 neighbors). Every node keeps
+        //    its neighbors in the order they are found, and whether it was the side's first corner.
+        int[] neighbor = new int[3 * nodeCount];
+        boolean[] firstEnd = new boolean[3 * nodeCount];
+        int[] degree = new int[nodeCount];
+        for (int tileId = 0; tileId < tileCount; tileId++) {
             List<Intersection> corners = tileCorners.get(tileId);
-
             for (int i = 0; i < 6; i++) {
-                Intersection a = corners.get(i);
-                Intersection b = corners.get((i + 1) % 6);
-
-                EdgeKey eKey = new EdgeKey(a.getNodeID(), b.getNodeID());
-                if (!edgeMap.containsKey(eKey)) {
-                    Edge e = new Edge(-1, a, b);
-                    edgeMap.put(eKey, e);
-
-                    a.addEdge(e);
-                    b.addEdge(e);
+                int a = corners.get(i).getNodeID();
+                int b = corners.get((i + 1) % 6).getNodeID();
+                if (slotOf(neighbor, degree, a, b) < 0) {
+                    neighbor[3 * a + degree[a]] = b;
+                    firstEnd[3 * a + degree[a]++] = true;
+                    neighbor[3 * b + degree[b]++] = a;
                 }
             }
         }
 
-        List<Edge> allEdges = new ArrayList<>(edgeMap.values());
-        allEdges.sort(Comparator.<Edge>comparingInt(e -> Math.min(e.getIntersection1().getNodeID(), e.getIntersection2().getNodeID()))
-                .thenComparingInt(e -> Math.max(e.getIntersection1().getNodeID(), e.getIntersection2().getNodeID())));
-
-        for (int i = 0; i < allEdges.size(); i++) {
-            allEdges.get(i).setEdgeID(i);
+        //    Edge IDs follow the (lower, higher) node IDs: walking the nodes in ID order and each node's higher
+        //    neighbors in ascending order hands them out in that order directly
+        Edge[] edges = new Edge[edgeCount];
+        int[] edgeOfSlot = new int[3 * nodeCount];
+        int nextEdgeId = 0;
+        for (int a = 0; a < nodeCount; a++) {
+            int previous = a;
+            while (true) {
+                int slot = -1;
+                for (int k = 3 * a; k < 3 * a + degree[a]; k++) {
+                    if (neighbor[k] > previous && (slot < 0 || neighbor[k] < neighbor[slot])) slot = k;
+                }
+                if (slot < 0) break;
+                int b = neighbor[slot];
+                if (nextEdgeId == edgeCount) {
+                    throw new IllegalStateException("More than the expected " + edgeCount + " edges");
+                }
+                edges[nextEdgeId] = firstEnd[slot]
+                        ? new Edge(nextEdgeId, nodes[a], nodes[b])
+                        : new Edge(nextEdgeId, nodes[b], nodes[a]);
+                edgeOfSlot[slot] = nextEdgeId;
+                edgeOfSlot[3 * b + slotOf(neighbor, degree, b, a)] = nextEdgeId;
+                nextEdgeId++;
+                previous = b;
+            }
+        }
+        if (nextEdgeId != edgeCount) {
+            throw new IllegalStateException("Expected " + edgeCount + " edges, found " + nextEdgeId);
+        }
+        for (int n = 0; n < nodeCount; n++) {
+            for (int k = 3 * n; k < 3 * n + degree[n]; k++) {
+                nodes[n].addEdge(edges[edgeOfSlot[k]]);
+            }
         }
-
 
         // 5) Create tiles and link to intersections
-        for (int tileId = 0; tileId < 19; tileId++) {
+        for (int tileId = 0; tileId < tileCount; tileId++) {
             List<Intersection> corners = tileCorners.get(tileId);
 
             Axial a = tileCoords.get(tileId);
 
-            Tile tile = new Tile(tileId, terrainById[tileId], tokenById[tileId], corners);
+            Tile tile = new Tile(tileId, terrainById[tileId], tokenById[tileId], corners, a.q, a.r);
 
             for (Intersection inter : corners) {
                 inter.addTile(tile);
@@ -96,10 +179,35 @@ final class BoardConfig {
             tilesOut.add(tile);
         }
 
-        // 6) Export final lists
-        allIntersections.sort(Comparator.comparingInt(Intersection::getNodeID));
-        intersectionsOut.addAll(allIntersections);
-        edgesOut.addAll(allEdges);
+        // 6) Export final lists (nodes and edges are already in ID order)
+        intersectionsOut.addAll(Arrays.asList(nodes));
+        edgesOut.addAll(Arrays.asList(edges));
+    }
+
+    // Position of b among the neighbors found so far for a, -1 if the pair is new
+    private static int slotOf(int[] neighbor, int[] degree, int a, int b) {
+        for (int k = 0; k < degree[a]; k++) {
+            if (neighbor[3 * a + k] == b) return k;
+        }
+        return -1;
+    }
+
+    /**
+     * Terrains of a map with the given number of tiles: the standard 19-tile layout repeated over the tile IDs,
+     * so every resource (and the desert) keeps its standard share as the map grows
+     * @return terrain per tile ID
+     */
+    private static Terrain[] terrainByTileId(int tileCount) {
+        Terrain[] standard = terrainByTileId();
+        Terrain[] t = new Terrain[tileCount];
+        for (int tileId = 0; tileId < tileCount; tileId++) {
+            t[tileId] = standard[tileId % standard.length];
+        }
+        // a map smaller than the layout still gets its desert (the robber starts there), on the center tile
+        if (tileCount < standard.length) {
+            t[0] = Terrain.DESERT;
+        }
+        return t;
     }
 
     /**
@@ -131,6 +239,23 @@ final class BoardConfig {
         return t;
     }
 
+    /**
+     * Tokens of a map with the given number of tiles, repeated over the tile IDs like the terrains
+     * (deserts get token 0)
+     * @return token per tile ID
+     */
+    private static int[] tokenByTileId(int tileCount) {
+        int[] standard = tokenByTileId();
+        int[] token = new int[tileCount];
+        for (int tileId = 0; tileId < tileCount; tileId++) {
+            token[tileId] = standard[tileId % standard.length];
+        }
+        if (tileCount < standard.length) {
+            token[0] = 0;
+        }
+        return token;
+    }
+
     /**
      * Attributing the tokens to the 19 tiles following the map suggested in the assignment Catan guideline
      * @return list of integer tokens of the 19 tiles
@@ -162,21 +287,20 @@ final class BoardConfig {
     /**
      * Method to return the list of axial tiles coordinates
      */
-    private static List<Axial> tileIdAxialCoords() {
-        // 19-hex "radius 2" layout:
-        // We place tile 0 at (0,0). Then ring 1 and ring 2 in clockwise order.
+    private static List<Axial> tileIdAxialCoords(int radius) {
+        // hexagonal layout, "radius 2" being the standard 19 hexes:
+        // We place tile 0 at (0,0). Then ring 1, ring 2, ... in clockwise order.
         // This keeps tile IDs stable and separated from the rest of the system.
-        List<Axial> coords = new ArrayList<>(19);
+        List<Axial> coords = new ArrayList<>(3 * radius * (radius + 1) + 1);
 
         coords.add(new Axial(0, 0)); // tile 0
 
-        // ring 1 (6 tiles)
-        coords.addAll(ringCoords(1));
-
-        // ring 2 (12 tiles)
-        coords.addAll(ringCoords(2));
+        // ring k has 6k tiles
+        for (int ring = 1; ring <= radius; ring++) {
+            coords.addAll(ringCoords(ring));
+        }
 
-        // total should be 19
+        // total should be 3r(r+1)+1
         return coords;
     }
 
@@ -207,111 +331,6 @@ final class BoardConfig {
         return ring;
     }
 
-    /**
-     * Assignment node ID's of the intersections and the center tile corners intersections
-     * @param all list of all intersections
-     * @param centerTileCorners the center tile 6 intersections
-     */
-    private static void assignNodeIds(List<Intersection> all, List<Intersection> centerTileCorners) {
-        // Assign 0..5 to center tile corners in a stable geometric order
-        // We try to match the idea "center tile corners are first" (as in the spec).
-        // Order target: top-right=0, right=1, bottom-right=2, bottom-left=3, left=4, top-left=5.
-
-        // We don't have direct coordinates stored in Intersection. So we assign based on adjacency
-        // order from the list produced by hexCornersFlatTop(...) which is already stable:
-        // [top-left, top-right, right, bottom-right, bottom-left, left]
-        // Map them into the desired IDs:
-        Intersection topLeft = centerTileCorners.get(0);
-        Intersection topRight = centerTileCorners.get(1);
-        Intersection right = centerTileCorners.get(2);
-        Intersection bottomRight = centerTileCorners.get(3);
-        Intersection bottomLeft = centerTileCorners.get(4);
-        Intersection left = centerTileCorners.get(5);
-
-        topRight.setNodeID(0);
-        right.setNodeID(1);
-        bottomRight.setNodeID(2);
-        bottomLeft.setNodeID(3);
-        left.setNodeID(4);
-        topLeft.setNodeID(5);
-
-        // Assign remaining IDs (6..53) by BFS expanding outward from those 6 nodes.
-        // This produces a "ring-like" numbering, deterministic for debugging/testing.
-        Set<Intersection> seeded = new HashSet<>(centerTileCorners);
-
-        // BFS frontier starts from the 6 center corners in ID order
-        List<Intersection> start = List.of(topRight, right, bottomRight, bottomLeft, left, topLeft);
-        Queue<Intersection> q = new ArrayDeque<>(start);
-
-        int nextId = 6;
-
-        while (!q.isEmpty()) {
-            Intersection cur = q.poll();
-            for (Intersection nb : cur.getAdjacentIntersections()) {
-                if (nb.getNodeID() != -1) continue;
-                nb.setNodeID(nextId++);
-                q.add(nb);
-            }
-        }
-
-        // If BFS didn’t reach everything (should be rare), assign remaining by insertion order
-        if (nextId <= 53) {
-            for (Intersection i : all) {
-                if (i.getNodeID() == -1) {
-                    i.setNodeID(nextId++);
-                }
-            }
-        }
-
-        // Safety check
-        if (nextId != 54) {
-            throw new IllegalStateException("Expected 54 intersections, assigned: " + nextId);
-        }
-    }
-
-    /**
-     * Converts axial hex coordinates (q, r) to Cartesian pixel coordinates (x, y)
-     * for a "flat-top" hexagon orientation.
-     * @param a The axial coordinate object containing q (column) and r (row).
-     * @param size The distance from the center of the hex to any corner.
-     * @return A Point object representing the center of the hexagon in 2D space.
-     */
-    private static Point axialToPointFlatTop(Axial a, double size) {
-        // Horizontal distance between adjacent hex centers is 3/2 * size
-        double x = size * (1.5 * a.q);
-        // Vertical distance involves sqrt(3) due to the geometry of equilateral triangles within the hex
-        double y = size * (Math.sqrt(3) * (a.r + a.q / 2.0));
-        return new Point(x, y);
-    }
-
-    /**
-     * Calculates the 2D Cartesian coordinates for all six corners of a flat-top hexagon.
-     * Returns corners in a stable clockwise/counter-clockwise order to ensure
-     * consistency when mapping edges and shared vertices.
-     * * @param center The central (x, y) point of the hexagon.
-     * @param size The radius/distance to corners.
-     * @return A list of 6 Points representing the vertices.
-     */
-    private static List<Point> hexCornersFlatTop(Point center, double size) {
-        // Pre-calculated offsets for a flat-top hex orientation.
-        // These are derived from the trigonometric functions of the corner angles.
-        double[][] offsets = new double[][]{
-                {-size * 0.5, -size * Math.sqrt(3) / 2.0}, // top-left
-                { size * 0.5, -size * Math.sqrt(3) / 2.0}, // top-right
-                { size, 0},                               // right
-                { size * 0.5, size * Math.sqrt(3) / 2.0},  // bottom-right
-                {-size * 0.5, size * Math.sqrt(3) / 2.0},  // bottom-left
-                {-size, 0}                                // left
-        };
-
-        List<Point> corners = new ArrayList<>(6);
-        for (double[] o : offsets) {
-            // Apply offsets to the center point to get absolute coordinates
-            corners.add(new Point(center.x + o[0], center.y + o[1]));
-        }
-        return corners;
-    }
-
     /**
      * Represents a coordinate in an Axial system (q = column, r = row).
      * Common in hex-grid math to simplify distance and neighbor calculations.
@@ -329,71 +348,4 @@ final class BoardConfig {
             return new Axial(this.q + other.q, this.r + other.r);
         }
     }
-    /** Simple container for 2D Cartesian coordinates. */
-    private static final class Point {
-        final double x;
-        final double y;
-
-        Point(double x, double y) {
-            this.x = x;
-            this.y = y;
-        }
-    }
-
-     /**
-     * A utility class used as a key in HashMaps to identify unique intersections.
-     * Since floating-point math (double) can have precision errors (e.g., 1.0000000001),
-     * this class rounds coordinates to 6 decimal places to ensure that vertices shared
-     * by multiple hexes are correctly identified as the exact same point.
-     */
-    private static final class VertexKey {
-        final long rx;
-        final long ry;
-
-        VertexKey(double x, double y) {
-            // round to 1e-6 scale
-            this.rx = Math.round(x * 1_000_000.0);
-            this.ry = Math.round(y * 1_000_000.0);
-        }
-
-        @Override
-        public boolean equals(Object o) {
-            if (!(o instanceof VertexKey)) return false;
-            VertexKey other = (VertexKey) o;
-            return rx == other.rx && ry == other.ry;
-        }
-
-        @Override
-        public int hashCode() {
-            return Objects.hash(rx, ry);
-        }
-    }
-
-    /**
-     * A utility class used to identify unique edges between two intersections.
-     * It ensures that an edge from Node A to Node B is treated the same as
-     * an edge from Node B to Node A (undirected) by sorting the IDs internally.
-     */
-    private static final class EdgeKey {
-        final int a;
-        final int b;
-
-        EdgeKey(int n1, int n2) {
-            // Sort to ensure (1, 2) is the same as (2, 1)
-            this.a = Math.min(n1, n2);
-            this.b = Math.max(n1, n2);
-        }
-
-        @Override
-        public boolean equals(Object o) {
-            if (!(o instanceof EdgeKey)) return false;
-            EdgeKey other = (EdgeKey) o;
-            return a == other.a && b == other.b;
-        }
-
-        @Override
-        public int hashCode() {
-            return Objects.hash(a, b);
-        }
-    }
 }
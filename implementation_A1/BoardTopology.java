@@ -0,0 +1,207 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * BoardTopology is the immutable part of a board: the tiles (terrain, token, axial coordinates), the node and
+ * edge IDs and how they connect. It is built once from BoardConfig and shared read-only by every Board, so a
+ * new game only creates its Intersection/Edge/Tile objects from these arrays and keeps its own ownership and
+ * robber state on top.
+ *
+ * All arrays are final, filled in the constructor and never written again, which makes an instance safe to
+ * share between threads once published.
+ *
+ * Adjacency is stored in compressed rows: the entries of node n sit in [start[n], start[n + 1]) of the
+ * matching array, in the same order the Intersection lists always had. Nothing is sized nodes x nodes, so
+ * memory and per-node lookups stay linear in the board size for the large maps of forRadius.
+ */
+final class BoardTopology {
+
+    private final int tileCount;
+    private final int nodeCount;
+    private final int edgeCount;
+    private final int nodeWords;
+    private final int edgeWords;
+
+    // tiles
+    private final Terrain[] tileTerrain;
+    private final int[] tileToken;
+    private final int[] tileQ;
+    private final int[] tileR;
+    private final int[] tileNodes;       // [tile * 6 + corner], corners in BoardConfig order
+
+    // edges
+    private final int[] edgeNodeA;
+    private final int[] edgeNodeB;
+
+    // nodes: incident edges, neighbors (the other endpoint of the same edge) and tiles
+    private final int[] nodeEdgeStart;
+    private final int[] nodeEdges;
+    private final int[] nodeNeighbors;
+    private final int[] nodeTileStart;
+    private final int[] nodeTiles;
+
+    // tile ids carrying each token (index = token)
+    private final int[][] tilesByToken;
+
+    /**
+     * Lazily built standard 19-tile topology (the holder class makes the first use thread-safe)
+     */
+    private static final class Standard {
+        static final BoardTopology INSTANCE = fromConfig(BoardConfig.STANDARD_RADIUS);
+    }
+
+    /**
+     * @return the shared topology of the standard map
+     */
+    static BoardTopology standard() {
+        return Standard.INSTANCE;
+    }
+
+    // Topologies of the other radii, built on first use and kept for the next board of the same size
+    private static final ConcurrentMap<Integer, BoardTopology> BY_RADIUS = new ConcurrentHashMap<>();
+
+    /**
+     * @param radius number of tile rings around the center tile (see BoardConfig.buildMap)
+     * @return the shared topology of the hexagonal map of that radius
+     */
+    static BoardTopology forRadius(int radius) {
+        if (radius == BoardConfig.STANDARD_RADIUS) return standard();
+        return BY_RADIUS.computeIfAbsent(radius, BoardTopology::fromConfig);
+    }
+
+    /**
+     * Runs the BoardConfig generator once and keeps only its IDs and connections
+     */
+    private static BoardTopology fromConfig(int radius) {
+        List<Tile> tiles = new ArrayList<>();
+        List<Intersection> intersections = new ArrayList<>();
+        List<Edge> edges = new ArrayList<>();
+        BoardConfig.buildMap(radius, tiles, intersections, edges);
+        return new BoardTopology(tiles, intersections, edges);
+    }
+
+    private BoardTopology(List<Tile> tiles, List<Intersection> intersections, List<Edge> edges) {
+        tileCount = tiles.size();
+        nodeCount = intersections.size();
+        edgeCount = edges.size();
+        nodeWords = BoardBitboards.words(nodeCount);
+        edgeWords = BoardBitboards.words(edgeCount);
+
+        tileTerrain = new Terrain[tileCount];
+        tileToken = new int[tileCount];
+        tileQ = new int[tileCount];
+        tileR = new int[tileCount];
+        tileNodes = new int[tileCount * 6];
+        int maxToken = 0;
+        for (Tile t : tiles) {
+            int id = t.getTileID();
+            tileTerrain[id] = t.getTerrain();
+            tileToken[id] = t.getToken();
+            tileQ[id] = t.getQ();
+            tileR[id] = t.getR();
+            List<Intersection> corners = t.getIntersections();
+            for (int c = 0; c < 6; c++) {
+                tileNodes[id * 6 + c] = corners.get(c).getNodeID();
+            }
+            maxToken = Math.max(maxToken, t.getToken());
+        }
+
+        edgeNodeA = new int[edgeCount];
+        edgeNodeB = new int[edgeCount];
+        for (Edge e : edges) {
+            edgeNodeA[e.getEdgeID()] = e.getIntersection1().getNodeID();
+            edgeNodeB[e.getEdgeID()] = e.getIntersection2().getNodeID();
+        }
+
+        nodeEdgeStart = new int[nodeCount + 1];
+        nodeTileStart = new int[nodeCount + 1];
+        for (Intersection i : intersections) {
+            nodeEdgeStart[i.getNodeID() + 1] = i.getEdges().size();
+            nodeTileStart[i.getNodeID() + 1] = i.getTiles().size();
+        }
+        for (int n = 0; n < nodeCount; n++) {
+            nodeEdgeStart[n + 1] += nodeEdgeStart[n];
+            nodeTileStart[n + 1] += nodeTileStart[n];
+        }
+        nodeEdges = new int[nodeEdgeStart[nodeCount]];
+        nodeNeighbors = new int[nodeEdgeStart[nodeCount]];
+        nodeTiles = new int[nodeTileStart[nodeCount]];
+        for (Intersection i : intersections) {
+            int node = i.getNodeID();
+            int at = nodeEdgeStart[node];
+            for (Edge e : i.getEdges()) {
+                nodeEdges[at] = e.getEdgeID();
+                nodeNeighbors[at] = e.getIntersection1() == i
+                        ? e.getIntersection2().getNodeID()
+                        : e.getIntersection1().getNodeID();
+                at++;
+            }
+            at = nodeTileStart[node];
+            for (Tile t : i.getTiles()) {
+                nodeTiles[at++] = t.getTileID();
+            }
+        }
+
+        int[] perToken = new int[maxToken + 1];
+        for (int t = 0; t < tileCount; t++) perToken[tileToken[t]]++;
+        tilesByToken = new int[maxToken + 1][];
+        for (int token = 0; token <= maxToken; token++) {
+            tilesByToken[token] = new int[perToken[token]];
+            perToken[token] = 0;
+        }
+        for (int t = 0; t < tileCount; t++) {
+            tilesByToken[tileToken[t]][perToken[tileToken[t]]++] = t;
+        }
+    }
+
+    // ---- sizes ----
+
+    int getTileCount() { return tileCount; }
+    int getNodeCount() { return nodeCount; }
+    int getEdgeCount() { return edgeCount; }
+    int getNodeWords() { return nodeWords; }
+    int getEdgeWords() { return edgeWords; }
+
+    // ---- tiles ----
+
+    Terrain tileTerrain(int tile) { return tileTerrain[tile]; }
+    int tileToken(int tile) { return tileToken[tile]; }
+    int tileQ(int tile) { return tileQ[tile]; }
+    int tileR(int tile) { return tileR[tile]; }
+    int tileNode(int tile, int corner) { return tileNodes[tile * 6 + corner]; }
+
+    int maxToken() { return tilesByToken.length - 1; }
+
+    // Number of tiles carrying the token, and the k-th of them
+    int tokenTileCount(int token) { return tilesByToken[token].length; }
+    int tokenTile(int token, int k) { return tilesByToken[token][k]; }
+
+    // ---- edges ----
+
+    int edgeNodeA(int edge) { return edgeNodeA[edge]; }
+    int edgeNodeB(int edge) { return edgeNodeB[edge]; }
+
+    /**
+     * @return the id of the edge joining the two nodes (either order), -1 if they are not adjacent
+     */
+    int edgeBetween(int nodeA, int nodeB) {
+        for (int k = nodeEdgeStart[nodeA]; k < nodeEdgeStart[nodeA + 1]; k++) {
+            if (nodeNeighbors[k] == nodeB) return nodeEdges[k];
+        }
+        return -1;
+    }
+
+    // ---- nodes (compressed rows) ----
+
+    int nodeEdgeStart(int node) { return nodeEdgeStart[node]; }
+    int nodeEdgeEnd(int node) { return nodeEdgeStart[node + 1]; }
+    // k-th incident edge and the neighbor across it, for k in [nodeEdgeStart, nodeEdgeEnd)
+    int nodeEdge(int k) { return nodeEdges[k]; }
+    int nodeNeighbor(int k) { return nodeNeighbors[k]; }
+
+    int nodeTileStart(int node) { return nodeTileStart[node]; }
+    int nodeTileEnd(int node) { return nodeTileStart[node + 1]; }
+    int nodeTile(int k) { return nodeTiles[k]; }
+}
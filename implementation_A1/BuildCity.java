@@ -102,13 +102,10 @@ public class BuildCity implements Command{
     }
 
     /**
-     * walks the board's intersection list to find the matching nodeId and returns null if not found
+     * looks up the intersection with the matching nodeId in constant time and returns null if not found
      */
     private Intersection findIntersection() {
-        for (Intersection i : board.getIntersections()) {
-            if (i.getNodeID() == nodeId) return i;
-        }
-        return null;
+        return board.getIntersection(nodeId);
     }
 
     @Override
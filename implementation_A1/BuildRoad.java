@@ -104,20 +104,11 @@ public class BuildRoad implements Command{
     }
 
     /**
-     * walks the board's edge list to find the edge with the two endpoints
-     * match fromNodeId and toNodeId in either order and returns null if it doesn't exist
+     * looks up the edge whose endpoints are fromNodeId and toNodeId (in either order) in constant time
+     * and returns null if it doesn't exist
      */
     private Edge findEdge() {
-        for (Edge e : board.getEdges()) {
-            int id1 = e.getIntersection1().getNodeID();
-            int id2 = e.getIntersection2().getNodeID();
-
-            //check both directions since edges are undirected
-            if ((id1 == fromNodeId && id2 == toNodeId) || (id1 == toNodeId && id2 == fromNodeId)) {
-                return e;
-            }
-        }
-        return null;
+        return board.getEdge(fromNodeId, toNodeId);
     }
 
     @Override
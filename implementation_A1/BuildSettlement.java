@@ -108,14 +108,11 @@ public class BuildSettlement implements Command{
     }
 
     /**
-     * walks the board's intersection list to find the matching nodeId
+     * looks up the intersection with the matching nodeId on the board in constant time
      * returns null if no intersection has that ID
      */
     private Intersection findIntersection() {
-        for (Intersection i : board.getIntersections()) {
-            if (i.getNodeID() == nodeId) return i;
-        }
-        return null;
+        return board.getIntersection(nodeId);
     }
 
 
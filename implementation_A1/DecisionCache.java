@@ -0,0 +1,128 @@
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * DecisionCache is a bounded transposition table of RuleBasedAgent decisions, keyed by the hash of the state
+ * the decision reads (see StateHash) and the seat deciding. An entry holds the best score and the moves tied
+ * for it, so the agent still draws its tie break from its own Random on a hit and plays exactly the game it
+ * would have played without the cache.
+ *
+ * The table has a fixed number of slots (a power of two) and never grows: a decision goes to the slot its key
+ * maps to and replaces (evicts) whatever other decision was there, the newest one being the most likely to
+ * come back. Entries are immutable and published through an AtomicReferenceArray, so any number of threads
+ * (parallel games, MCTS rollout workers) can share one cache without locking. Hits, misses and evictions are
+ * counted with LongAdders.
+ *
+ * The moves are MoveGenerator ids, so a cache must only be shared between games over the same map.
+ */
+public final class DecisionCache {
+
+    // Largest number of slots, the table is one array
+    public static final int MAX_CAPACITY = 1 << 30;
+
+    private final AtomicReferenceArray<Entry> slots;
+    private final int mask;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param capacity the number of decisions kept, rounded up to a power of two
+     */
+    public DecisionCache(int capacity) {
+        if (capacity < 1 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("capacity must be in [1.." + MAX_CAPACITY + "]. Found: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) size <<= 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Looks up the decision of the seat in the state and counts a hit or a miss
+     * @return the cached decision, null if it is not in the cache
+     */
+    Entry get(long stateHash, int seat) {
+        Entry entry = slots.get(slotOf(stateHash, seat));
+        if (entry != null && entry.stateHash == stateHash && entry.seat == seat) {
+            hits.increment();
+            return entry;
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Stores the decision of the seat in the state, evicting the decision held by its slot
+     * @param value the best score (0 if no rule fired)
+     * @param moves the moves tied for the best score, the first count are used
+     * @param ruleNames the rules that chose those moves
+     */
+    void put(long stateHash, int seat, double value, int[] moves, String[] ruleNames, int count) {
+        int slot = slotOf(stateHash, seat);
+        Entry entry = new Entry(stateHash, seat, value, moves, ruleNames, count);
+        Entry old = slots.getAndSet(slot, entry);
+        if (old != null && (old.stateHash != stateHash || old.seat != seat)) evictions.increment();
+    }
+
+    // Getter method to return the number of slots
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    // Getter method to return the number of lookups answered from the cache
+    public long getHits() {
+        return hits.sum();
+    }
+
+    // Getter method to return the number of lookups that had to be decided
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    // Getter method to return the number of decisions replaced by another one
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    // Both halves of the hash pick the slot, the seat moves it so the seats of one state don't collide
+    private int slotOf(long stateHash, int seat) {
+        long h = stateHash ^ StateHash.seatKey(seat);
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    /**
+     * One cached decision: the state and seat it was made for, the best score and the moves tied for it
+     */
+    static final class Entry {
+        final long stateHash;
+        final int seat;
+        final double value;
+        private final int[] moves;
+        private final String[] ruleNames;
+
+        private Entry(long stateHash, int seat, double value, int[] moves, String[] ruleNames, int count) {
+            this.stateHash = stateHash;
+            this.seat = seat;
+            this.value = value;
+            this.moves = Arrays.copyOf(moves, count);
+            this.ruleNames = Arrays.copyOf(ruleNames, count);
+        }
+
+        // Getter method to return the number of moves tied for the best score (0: no rule fired)
+        int size() {
+            return moves.length;
+        }
+
+        int moveAt(int k) {
+            return moves[k];
+        }
+
+        String ruleNameAt(int k) {
+            return ruleNames[k];
+        }
+    }
+}
@@ -30,7 +30,7 @@ public class Demonstrator {
         multiDice.addDice(dice1);
         multiDice.addDice(dice2);
 
-        ResourceProduction production = new ResourceProduction(multiDice, resources, board);
+        ResourceProduction production = new ResourceProduction(multiDice, resources, board, randomizer);
         int maxRounds = 100;
         Game game = new Game(board, resources, production, maxRounds, randomizer);
 
@@ -290,22 +290,14 @@ public class Demonstrator {
 
     /** Returns true if the given node is owned by ORANGE and is not a city. */
     private static boolean checkNodeOwnedByOrange(Game game, int nodeId) {
-        for (Intersection i : game.getBoard().getIntersections()) {
-            if (i.getNodeID() == nodeId) {
-                return game.getOrangePlayer().equals(i.getOwner()) && !i.isCity();
-            }
-        }
-        return false;
+        Intersection i = game.getBoard().getIntersection(nodeId);
+        return i != null && game.getOrangePlayer().equals(i.getOwner()) && !i.isCity();
     }
 
     /** Returns true if the given node is owned by ORANGE and IS a city. */
     private static boolean checkNodeIsCityOwnedByOrange(Game game, int nodeId) {
-        for (Intersection i : game.getBoard().getIntersections()) {
-            if (i.getNodeID() == nodeId) {
-                return game.getOrangePlayer().equals(i.getOwner()) && i.isCity();
-            }
-        }
-        return false;
+        Intersection i = game.getBoard().getIntersection(nodeId);
+        return i != null && game.getOrangePlayer().equals(i.getOwner()) && i.isCity();
     }
 
     // Visualizer helpers
@@ -6,6 +6,8 @@
 public final class Edge {
     private int edgeID;
     private Player owner;
+    // The board this edge belongs to, told about every ownership change so its bitboards stay in sync
+    private Board board;
     public Intersection intersection1;
     public Intersection intersection2;
 
@@ -36,6 +38,11 @@ public final class Edge {
     // Setter method to set the Edge owner player
     public void setOwner(Player owner) {
         this.owner = owner;
+        if (board != null) board.edgeChanged(this);
+    }
+    // Links the edge to the board that tracks its ownership
+    void attachTo(Board board) {
+        this.board = board;
     }
     // Getter method to return the Edge first intersection
     public Intersection getIntersection1() {
@@ -11,8 +11,13 @@ import java.io.IOException;
  */
 
 public class Game {
+    // Vpoints a player needs to win the game
+    static final int VICTORY_POINTS_TO_WIN = 10;
+
     private int currentRound;
     private int maxRound;
+    // Seat (index in players) whose turn is being played or comes next
+    private int currentSeat;
 
     private final Board board;
     private final Resources resources;
@@ -22,16 +27,29 @@ public class Game {
     private Player white;
     private Player red;
     private Player blue;
+    // Reused buffer of the fallback's legal moves (every node may be a city or a settlement, every edge a road)
+    private int[] moveBuffer;
+    // The four players in turn order, built once so turns and production don't allocate a new list
+    private List<Player> players;
+    // The same players indexed by seat (turn order is seat order)
+    private Player[] bySeat;
 
     private final Random randomizer;
 
+    // Headless games skip the pacing sleep, all console output and the JSON export so batch runs stay fast
+    private final boolean headless;
+
     // A3: CommandHistory for undo/redo (R3.1)
     // One shared history instance covers all human-initiated commands so AI turns do NOT push to the history, only the human player's actions do.
     private final CommandHistory commandHistory = new CommandHistory();
 
     // A3: RuleBasedAgent for AI players (R3.2 + R3.3)
-    // All three AI players share the same agent instance; the agent is stateless between calls so sharing is safe.
+    // All three AI players share the same agent instance. The agent is not stateless (it reuses its tie buffers and
+    // holds the DecisionCache reference), so it may only be shared by seats of this one single-threaded game: every
+    // ParallelGameRunner game and every MctsAgent rollout worker builds its own Game, and with it its own agent.
     private final RuleBasedAgent ruleBasedAgent;
+    // Agent of each seat, the rule-based agent unless replaced through setAgent (the human seat never asks its agent)
+    private final Agent[] agents = new Agent[Color.values().length];
 
     /**
      * The game instance constructor to initiate one game simulation
@@ -42,24 +60,42 @@ public class Game {
      * @param randomizer the randomizer to use throughout the game to generate random moves
      */
     public Game(Board board, Resources resources, ResourceProduction production, int maxRound, Random randomizer) {
+        this(board, resources, production, maxRound, randomizer, false);
+    }
+
+    /**
+     * The game instance constructor with the option to run headless (used by the batch simulator)
+     * @param board the board where the game will be hosted
+     * @param resources the resources that will be initialized in the game and dealt with during the game
+     * @param production the production of resources through the special class of resourceProduction
+     * @param maxRound the maximum number of round that will be stated to 25 in the simulation
+     * @param randomizer the randomizer to use throughout the game to generate random moves
+     * @param headless if true, no pauses, no console output and no gameState.json write
+     */
+    public Game(Board board, Resources resources, ResourceProduction production, int maxRound, Random randomizer, boolean headless) {
         this.board = board;
         this.resources = resources;
         this.production = production;
         this.maxRound = maxRound;
         this.randomizer = randomizer;
+        this.headless = headless;
 
         orange = new Player(Color.ORANGE, 19);
         white  = new Player(Color.WHITE, 20);
         red    = new Player(Color.RED, 21);
         blue   = new Player(Color.BLUE, 22);
+        players = List.of(orange, white, red, blue);
+        bySeat = players.toArray(new Player[0]);
+        moveBuffer = new int[2 * board.intersectionCount() + board.edgeCount()];
 
         // A3: create the rule-based agent that all AI players will use
-        ruleBasedAgent = new RuleBasedAgent(randomizer);
+        ruleBasedAgent = new RuleBasedAgent(randomizer, !headless);
+        Arrays.fill(agents, ruleBasedAgent);
 
         currentRound = 0;
         setupInitialPlacements();
-        // calls method that will write JSON file
-        writeJson("gameState.json");
+        // calls method that will write JSON file (skipped in headless batch runs)
+        if (!headless) writeJson("gameState.json");
     }
 
     // Start game method to keep playing until the maxround is hit
@@ -67,16 +103,152 @@ public class Game {
         while (currentRound < maxRound && !checkWinner()) {
             currentRound++;
             playRound();
-            printVictoryPointsSummary();
+            if (!headless) printVictoryPointsSummary();
         }
         endGame();
     }
 
-    // The simulation of round per each player
+    // The simulation of round per each player (after a restore in the middle of a round, the rest of that round)
     public void playRound() {
-        for (Player p : List.of(orange, white, red, blue)) {
-            playTurn(p);
+        do {
+            playNextTurn();
+        } while (currentSeat != 0);
+    }
+
+    // Plays the turn of the current player, then hands the turn to the next seat
+    public void playNextTurn() {
+        playTurn(players.get(currentSeat));
+        currentSeat = (currentSeat + 1) % players.size();
+    }
+
+    // Getter method to return the player whose turn is being played or comes next
+    public Player getCurrentPlayer() {
+        return players.get(currentSeat);
+    }
+
+    /**
+     * 64-bit Zobrist hash of the game state (pieces, robber, hands, bank and the seat to play), see StateHash.
+     * The board, the bank and every hand keep their part up to date on each change, so this only combines them
+     * @return equal for equal states, whatever moves, undos, restores or turns led to them
+     */
+    public long getStateHash() {
+        long hash = board.getPieceHash() ^ resources.getBankHash() ^ StateHash.seatKey(getCurrentPlayer().getSeat());
+        for (Player p : players) {
+            hash ^= p.getHandHash();
         }
+        return hash;
+    }
+
+    /**
+     * Lets the game's rule-based agent reuse the decisions it (or any agent sharing the cache) already made
+     * in the same position; the game played is the same with or without the cache
+     * @param cache the cache, shared only between games over the same map; null to stop caching
+     */
+    public void setDecisionCache(DecisionCache cache) {
+        ruleBasedAgent.setDecisionCache(cache);
+    }
+
+    /**
+     * Replaces the agent of every AI seat
+     * @param agent the agent choosing the AI actions from now on
+     */
+    public void setAgent(Agent agent) {
+        Arrays.fill(agents, agent);
+    }
+
+    /**
+     * Replaces the agent of one seat, e.g. to pit a search agent against the rule-based ones
+     * @param color the seat of the agent
+     * @param agent the agent choosing that seat's actions from now on
+     */
+    public void setAgent(Color color, Agent agent) {
+        agents[color.ordinal()] = agent;
+    }
+
+    /**
+     * Plays one move generated by MoveGenerator as the current player's action and ends the turn
+     * (used by search agents to branch on the current decision)
+     * @param move the move to play, RuleDecision.NO_MOVE to play nothing
+     */
+    void playMoveAndEndTurn(int move) {
+        if (move != RuleDecision.NO_MOVE) playMove(players.get(currentSeat), move);
+        currentSeat = (currentSeat + 1) % players.size();
+    }
+
+    /**
+     * Plays on headlessly from the current turn: the rest of the round in progress, then whole rounds until a
+     * player wins or the given round is played (never past the game's last round)
+     * @param lastRound the last round to play
+     */
+    void playOut(int lastRound) {
+        int until = Math.min(lastRound, maxRound);
+        if (currentSeat != 0) playRound();
+        while (currentRound < until && !checkWinner()) {
+            currentRound++;
+            playRound();
+        }
+    }
+
+    // Getter method to return the number of rounds the game is played for
+    int getMaxRound() {
+        return maxRound;
+    }
+
+    /**
+     * Captures the whole game state (ownership, hands, bank, robber, round, current seat, build records)
+     * @return an immutable snapshot that restore() can put back on this game or another game over the same map
+     */
+    public GameSnapshot snapshot() {
+        long[] ownership = new long[board.ownershipWords()];
+        board.saveOwnership(ownership);
+
+        int resourceCount = Resource.values().length;
+        int[] cards = new int[(players.size() + 1) * resourceCount];
+        int recordsSize = 0;
+        for (Player p : players) {
+            p.saveHand(cards, p.getSeat() * resourceCount);
+            recordsSize += p.recordsSize();
+        }
+        resources.saveCounts(cards, players.size() * resourceCount);
+
+        int[] records = new int[recordsSize];
+        int at = 0;
+        for (Player p : players) {
+            at = p.saveRecords(records, at);
+        }
+
+        Tile robber = board.getRobberTile();
+        return new GameSnapshot(ownership, cards, records, robber == null ? -1 : robber.getTileID(), currentRound, currentSeat);
+    }
+
+    /**
+     * Puts the game back in the state of the snapshot; the board follows through its usual setters
+     * @param snapshot a snapshot of this game or of another game over the same map
+     */
+    public void restore(GameSnapshot snapshot) {
+        if (snapshot.ownership().length != board.ownershipWords()) {
+            throw new IllegalArgumentException("snapshot was taken on a board of another size");
+        }
+        board.restoreOwnership(snapshot.ownership(), bySeat);
+
+        int resourceCount = Resource.values().length;
+        int[] cards = snapshot.cards();
+        for (Player p : players) {
+            p.loadHand(cards, p.getSeat() * resourceCount);
+        }
+        resources.loadCounts(cards, players.size() * resourceCount);
+
+        int at = 0;
+        for (Player p : players) {
+            at = p.loadRecords(snapshot.records(), at);
+        }
+
+        int robber = snapshot.getRobberTile();
+        Tile robberTile = robber < 0 ? null : board.tileAt(robber);
+        if (board.getRobberTile() != robberTile) board.setRobberTile(robberTile);
+
+        currentRound = snapshot.getRound();
+        currentSeat = snapshot.getCurrentSeat();
     }
 
 
@@ -112,18 +284,20 @@ public class Game {
 
     // The simulation of each turn of each player passed as paramter to the method
     private void playTurn(Player currentPlayer) {
-        boolean produced = production.produce(currentPlayer, List.of(orange, white, red, blue));
+        boolean produced = production.produce(currentPlayer, players);
 
-        System.out.println("=== Round " + currentRound + ", " + currentPlayer.getColor() + "'s turn ===");
-        if (produced) System.out.println("Resources produced for eligible settlements/cities.");
-        else System.out.println("No production this turn.");
+        if (!headless) {
+            System.out.println("=== Round " + currentRound + ", " + currentPlayer.getColor() + "'s turn ===");
+            if (produced) System.out.println("Resources produced for eligible settlements/cities.");
+            else System.out.println("No production this turn.");
+        }
 
         // AI players use the rule-based agent (R3.2 + R3.3)
         if (currentPlayer != orange) {
             playAiTurn(currentPlayer);
         }
         // Human turn is driven by Demonstrator — nothing to do here in the simulator path
-        pause();
+        if (!headless) pause();
     }
 
     /**
@@ -140,7 +314,7 @@ public class Game {
      */
     private void playAiTurn(Player p) {
         // R3.3 constraint: if player has >7 cards, the agent's MustSpendRule fires first
-        Command action = ruleBasedAgent.selectAction(p, board, resources);
+        Command action = agents[p.getSeat()].selectAction(p, board, resources);
 
         if (action != null) {
             // The agent already printed which rule fired (inside RuleBasedAgent.selectAction)
@@ -148,9 +322,9 @@ public class Game {
             log(p, "executed: " + action);
         } else {
             // Fallback: no rule fired, try any legal action randomly
-            List<RunnableAction> fallback = computeLegalActions(p);
-            if (!fallback.isEmpty()) {
-                fallback.get(randomizer.nextInt(fallback.size())).run();
+            int count = computeLegalActions(p);
+            if (count > 0) {
+                playMove(p, moveBuffer[randomizer.nextInt(count)]);
             } else {
                 log(p, "no legal action available.");
             }
@@ -162,67 +336,32 @@ public class Game {
         try { Thread.sleep(300); } catch (InterruptedException ignored) {}
     }
 
-    // ComputeLegalActions is the method that is responsible to run the runnable action per player passed as parameter
-    // such as building city, settlement or road
-    private List<RunnableAction> computeLegalActions(Player p) {
-        List<RunnableAction> actions = new ArrayList<>();
-
-        if (canAffordCity(p)) {
-            for (Intersection i : board.getIntersections()) {
-                final Intersection target = i;
-                if (p.equals(target.getOwner()) && !target.isCity()) {
-                    actions.add(new RunnableAction(() -> {
-                        if (payCityCost(p) && board.buildCity(p, target)) {
-                            log(p, "built CITY at node " + target.getNodeID());
-                        }
-                    }));
-                }
-            }
-        }
+    // ComputeLegalActions writes the legal moves of the player passed as parameter into the move buffer
+    // (cities, then settlements, then roads, see MoveGenerator) and returns how many there are
+    private int computeLegalActions(Player p) {
+        return board.getMoves().generate(p, canAffordCity(p), canAffordSettlement(p), canAffordRoad(p), moveBuffer);
+    }
 
-        if (canAffordSettlement(p)) {
-            for (Intersection i : board.getIntersections()) {
-                final Intersection target = i;
-                if (target.getOwner() == null && hasAdjacentPlayerRoad(p, target) && neighborsFree(target)) {
-                    actions.add(new RunnableAction(() -> {
-                        if (paySettlementCost(p) && board.buildSettlement(p, target)) {
-                            log(p, "built SETTLEMENT at node " + target.getNodeID());
-                        }
-                    }));
+    // Pays for and builds one move produced by the move generator
+    private void playMove(Player p, int move) {
+        int id = MoveGenerator.idOf(move);
+        switch (MoveGenerator.typeOf(move)) {
+            case MoveGenerator.CITY:
+                if (payCityCost(p) && board.buildCity(p, board.intersectionAt(id))) {
+                    log(p, "built CITY at node " + id);
                 }
-            }
-        }
-
-        if (canAffordRoad(p)) {
-            for (Edge e : board.getEdges()) {
-                final Edge targetEdge = e;
-                if (targetEdge.getOwner() == null) {
-                    actions.add(new RunnableAction(() -> {
-                        if (payRoadCost(p) && board.buildRoad(p, targetEdge)) {
-                            log(p, "built ROAD on edge " + targetEdge.getEdgeID());
-                        }
-                    }));
+                break;
+            case MoveGenerator.SETTLEMENT:
+                if (paySettlementCost(p) && board.buildSettlement(p, board.intersectionAt(id))) {
+                    log(p, "built SETTLEMENT at node " + id);
                 }
-            }
-        }
-
-        return actions;
-    }
-
-    // Checker method to make sure the player has the adjacent road to help us locate the player and its intent
-    private boolean hasAdjacentPlayerRoad(Player p, Intersection target) {
-        for (Edge e : target.getEdges()) {
-            if (p.equals(e.getOwner())) return true;
-        }
-        return false;
-    }
-
-    // Checker method to make sure his surroundings are free
-    private boolean neighborsFree(Intersection target) {
-        for (Intersection n : target.getAdjacentIntersections()) {
-            if (n.getOwner() != null) return false;
+                break;
+            default:
+                if (payRoadCost(p) && board.buildRoad(p, board.edgeAt(id))) {
+                    log(p, "built ROAD on edge " + id);
+                }
+                break;
         }
-        return true;
     }
 
     // Checker method to check if the player passed as param can afford the road
@@ -263,43 +402,55 @@ public class Game {
                 && resources.spendResources(2, p, Resource.GRAIN);
     }
 
-    // Checker method to check the winner if any player reached the 10 vpoints
+    // Checker method to check the winner if any player reached the 10 vpoints (O(1) check on the board's VP ledger)
     public boolean checkWinner() {
-        return getVictoryPoints(orange) >= 10
-                || getVictoryPoints(white) >= 10
-                || getVictoryPoints(red) >= 10
-                || getVictoryPoints(blue) >= 10;
-    }
-
-    // Getter method to get the vpoints of the player passed in param
-    private int getVictoryPoints(Player p) {
-        int vp = 0;
-        for (Intersection i : board.getIntersections()) {
-            if (p.equals(i.getOwner())) {
-                vp += i.isCity() ? 2 : 1;
-            }
-        }
-        return vp;
+        return board.hasPlayerReached(VICTORY_POINTS_TO_WIN);
+    }
+
+    // Getter method to get the vpoints of the player passed in param (settlement = 1, city = 2, read from the board's VP ledger)
+    public int getVictoryPoints(Player p) {
+        return board.getVictoryPoints(p);
     }
 
     // Method used to end the game and to announce the winner and his vpoints
     public void endGame() {
+        if (headless) return;
+        Player winner = getWinner();
+        System.out.println("=== GAME ENDED ===");
+        System.out.println("Winner: " + winner.getColor() + " with " + getVictoryPoints(winner) + " VP.");
+    }
+
+    // Getter method to return the player with the most vpoints (first in turn order wins ties)
+    public Player getWinner() {
         Player winner = null;
         int best = -1;
-        for (Player p : List.of(orange, white, red, blue)) {
+        for (Player p : getPlayers()) {
             int vp = getVictoryPoints(p);
             if (vp > best) {
                 best = vp;
                 winner = p;
             }
         }
-        System.out.println("=== GAME ENDED ===");
-        System.out.println("Winner: " + winner.getColor() + " with " + best + " VP.");
+        return winner;
+    }
+
+    /**
+     * Builds the one-line summary of a finished game used by the headless batch simulator
+     * @param seed the seed the game was created with
+     * @return the result holding the seed, winner, rounds played and the vpoints per seat
+     */
+    public GameResult getResult(long seed) {
+        List<Player> players = getPlayers();
+        int[] vpPerSeat = new int[players.size()];
+        for (int i = 0; i < players.size(); i++) {
+            vpPerSeat[i] = getVictoryPoints(players.get(i));
+        }
+        return new GameResult(seed, getWinner().getColor(), currentRound, vpPerSeat);
     }
 
     // Setter method to initialize the placements at the start of the game
     private void setupInitialPlacements() {
-        List<Player> order = List.of(orange, white, red, blue);
+        List<Player> order = players;
         for (Player p : order) placeInitialSettlementAndRoad(p);
         for (Player p : order) {
             placeInitialSettlementAndRoad(p);
@@ -308,44 +459,43 @@ public class Game {
     }
     // Setter method to place the settlements and roads for the player passed as param
     private void placeInitialSettlementAndRoad(Player p) {
-        List<Intersection> candidates = new ArrayList<>();
-        for (Intersection i : board.getIntersections()) {
-            if (i.getOwner() != null) continue;
-            if (neighborsFree(i)) candidates.add(i);
-        }
-        if (candidates.isEmpty()) return;
+        // candidate spots are the free nodes in ID order, written into the move buffer
+        int count = board.getMoves().freeSpots(moveBuffer);
+        if (count == 0) return;
 
-        Intersection chosen = candidates.get(randomizer.nextInt(candidates.size()));
+        Intersection chosen = board.intersectionAt(moveBuffer[randomizer.nextInt(count)]);
         if (board.buildSettlement(p, chosen, true)) {
             log(p, "initial placement: SETTLEMENT at node " + chosen.getNodeID());
         }
 
-        List<Edge> edgeCandidates = new ArrayList<>();
-        for (Edge e : chosen.getEdges()) {
-            if (e.getOwner() == null) edgeCandidates.add(e);
+        // free edges around the new settlement, in the node's edge order
+        BoardTopology topology = board.getTopology();
+        int node = chosen.getNodeID();
+        int edgeCount = 0;
+        for (int k = topology.nodeEdgeStart(node); k < topology.nodeEdgeEnd(node); k++) {
+            int edge = topology.nodeEdge(k);
+            if (board.edgeAt(edge).getOwner() == null) moveBuffer[edgeCount++] = edge;
         }
-        if (!edgeCandidates.isEmpty()) {
-            Edge roadEdge = edgeCandidates.get(randomizer.nextInt(edgeCandidates.size()));
+        if (edgeCount > 0) {
+            Edge roadEdge = board.edgeAt(moveBuffer[randomizer.nextInt(edgeCount)]);
             roadEdge.setOwner(p);
             p.recordRoadBuilt(roadEdge.getEdgeID());
             log(p, "initial placement: ROAD on edge " + roadEdge.getEdgeID());
         }
     }
 
-    // Method used to grant the resources for the second settlement for the player passed as param
+    // Setter method to grant the resources of the tiles around one of the player's settlements (second placement round)
     private void grantStartingResourcesForSecondSettlement(Player p) {
-        List<Intersection> ownedSettlements = new ArrayList<>();
-        for (Intersection i : board.getIntersections()) {
-            if (p.equals(i.getOwner()) && !i.isCity()) ownedSettlements.add(i);
-        }
-        if (ownedSettlements.isEmpty()) return;
-
-        Intersection chosen = ownedSettlements.get(randomizer.nextInt(ownedSettlements.size()));
-        Map<Resource, Integer> demand = new EnumMap<>(Resource.class);
-        for (Resource r : Resource.values()) demand.put(r, 0);
-        for (Tile t : chosen.getTiles()) {
-            Resource produced = Tile.getResource(t.getTerrain());
-            if (produced != null) demand.put(produced, demand.get(produced) + 1);
+        // the player's settlements in ID order (the move generator's city upgrades are exactly those)
+        int count = board.getMoves().generate(p, true, false, false, moveBuffer);
+        if (count == 0) return;
+
+        int node = MoveGenerator.idOf(moveBuffer[randomizer.nextInt(count)]);
+        BoardTopology topology = board.getTopology();
+        int[] demand = new int[Resource.values().length];
+        for (int k = topology.nodeTileStart(node); k < topology.nodeTileEnd(node); k++) {
+            Resource produced = Tile.getResource(topology.tileTerrain(topology.nodeTile(k)));
+            if (produced != null) demand[produced.ordinal()]++;
         }
 
         if (!resources.canProvideAll(demand)) {
@@ -354,7 +504,7 @@ public class Game {
         }
 
         for (Resource r : Resource.values()) {
-            int amt = demand.get(r);
+            int amt = demand[r.ordinal()];
             if (amt > 0) resources.giveResources(amt, p, r);
         }
         log(p, "received starting resources for initial placement.");
@@ -362,6 +512,7 @@ public class Game {
 
     // Log method used to print for each round the state of the round, the player and his action
     private void log(Player p, String action) {
+        if (headless) return;
         System.out.println(currentRound + " / " + p.getColor() + ": " + action);
     }
 
@@ -375,12 +526,6 @@ public class Game {
     }
 
     // The runnable action method instantiated to be used in the boardConfig class
-    private static final class RunnableAction {
-        private final Runnable r;
-        RunnableAction(Runnable r) { this.r = r; }
-        void run() { r.run(); }
-    }
-
     // exports the board tile configuration to an external JSON file
 
     /**
@@ -492,6 +637,27 @@ public class Game {
         return orange;
     }
 
+    /**
+     * Get the four players in turn order (orange, white, red, blue)
+     */
+    public List<Player> getPlayers() {
+        return players;
+    }
+
+    /**
+     * Get the number of rounds played so far
+     */
+    public int getCurrentRound() {
+        return currentRound;
+    }
+
+    /**
+     * Get the resource bank of the game
+     */
+    public Resources getResources() {
+        return resources;
+    }
+
     /**
      * Get the game board
      */
@@ -0,0 +1,65 @@
+/**
+ * GameResult is the outcome of one finished game, used by the headless batch simulator to print
+ * one compact summary line per game (seed, winner, rounds played and the vpoints of each seat).
+ */
+public final class GameResult {
+    private final long seed;
+    private final Color winner;
+    private final int rounds;
+    private final int[] vpPerSeat;
+
+    /**
+     * @param seed the seed the game was created with
+     * @param winner the color of the player with the most vpoints
+     * @param rounds the number of rounds that were played
+     * @param vpPerSeat the vpoints of each seat in turn order
+     */
+    GameResult(long seed, Color winner, int rounds, int[] vpPerSeat) {
+        this.seed = seed;
+        this.winner = winner;
+        this.rounds = rounds;
+        this.vpPerSeat = vpPerSeat.clone();
+    }
+
+    // Getter method to return the seed of the game
+    public long getSeed() {
+        return seed;
+    }
+
+    // Getter method to return the color of the winner
+    public Color getWinner() {
+        return winner;
+    }
+
+    // Getter method to return the number of rounds played
+    public int getRounds() {
+        return rounds;
+    }
+
+    // Getter method to return the vpoints of the seat passed as param (0 = orange ... 3 = blue)
+    public int getVictoryPoints(int seat) {
+        return vpPerSeat[seat];
+    }
+
+    /**
+     * Compact summary line, e.g. "seed=42 winner=RED rounds=25 vp=3,4,7,2"
+     * @return the summary line of the game
+     */
+    public String toSummaryLine() {
+        StringBuilder line = new StringBuilder();
+        line.append("seed=").append(seed)
+                .append(" winner=").append(winner)
+                .append(" rounds=").append(rounds)
+                .append(" vp=");
+        for (int i = 0; i < vpPerSeat.length; i++) {
+            if (i > 0) line.append(',');
+            line.append(vpPerSeat[i]);
+        }
+        return line.toString();
+    }
+
+    @Override
+    public String toString() {
+        return toSummaryLine();
+    }
+}
@@ -0,0 +1,103 @@
+import java.util.Arrays;
+
+/**
+ * GameSnapshot is a compact copy of the whole state of a Game between two moves: who owns which node
+ * (settlement or city) and which edge, every hand, the bank, the robber tile, the round, whose turn it is and
+ * the build records of each player. It is taken with Game.snapshot() and put back with Game.restore(), on the
+ * same game or on another game over the same map, which is what lookahead agents, rollouts and checkpoints need.
+ *
+ * The state is held in a few primitive arrays (the ownership is the raw bitboard words, 16 longs on the standard
+ * map), so taking or restoring a snapshot is a handful of array copies. A snapshot is immutable and compares by
+ * value. The random sources of the game (dice, agents) are not part of it.
+ */
+public final class GameSnapshot {
+
+    private static final int RESOURCE_COUNT = Resource.values().length;
+
+    // settlement, city and road words of every seat, as copied from BoardBitboards
+    private final long[] ownership;
+    // hands of every seat [seat * RESOURCE_COUNT + r], then the bank [SEATS * RESOURCE_COUNT + r]
+    private final int[] cards;
+    // build records of every seat in seat order (see Player.saveRecords)
+    private final int[] records;
+    private final int robberTile;
+    private final int round;
+    private final int currentSeat;
+
+    GameSnapshot(long[] ownership, int[] cards, int[] records, int robberTile, int round, int currentSeat) {
+        this.ownership = ownership;
+        this.cards = cards;
+        this.records = records;
+        this.robberTile = robberTile;
+        this.round = round;
+        this.currentSeat = currentSeat;
+    }
+
+    // Getter method to return the round the game was in
+    public int getRound() {
+        return round;
+    }
+
+    // Getter method to return the seat whose turn it was (0 = orange ... 3 = blue)
+    public int getCurrentSeat() {
+        return currentSeat;
+    }
+
+    // Getter method to return the ID of the tile holding the robber, -1 if the robber was on no tile
+    public int getRobberTile() {
+        return robberTile;
+    }
+
+    // Getter method to return how many cards of the resource the seat held
+    public int getResourceCount(int seat, Resource r) {
+        return cards[seat * RESOURCE_COUNT + r.ordinal()];
+    }
+
+    // Getter method to return how many cards of the resource were left in the bank
+    public int getBankCount(Resource r) {
+        return cards[BoardBitboards.SEATS * RESOURCE_COUNT + r.ordinal()];
+    }
+
+    /**
+     * @return the approximate size of the captured state in bytes (the array contents)
+     */
+    public int sizeInBytes() {
+        return ownership.length * Long.BYTES + (cards.length + records.length + 3) * Integer.BYTES;
+    }
+
+    // Package-private views for Game.restore, never handed out
+    long[] ownership() {
+        return ownership;
+    }
+
+    int[] cards() {
+        return cards;
+    }
+
+    int[] records() {
+        return records;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof GameSnapshot)) return false;
+        GameSnapshot other = (GameSnapshot) o;
+        return robberTile == other.robberTile
+                && round == other.round
+                && currentSeat == other.currentSeat
+                && Arrays.equals(ownership, other.ownership)
+                && Arrays.equals(cards, other.cards)
+                && Arrays.equals(records, other.records);
+    }
+
+    @Override
+    public int hashCode() {
+        int h = Arrays.hashCode(ownership);
+        h = 31 * h + Arrays.hashCode(cards);
+        h = 31 * h + Arrays.hashCode(records);
+        h = 31 * h + robberTile;
+        h = 31 * h + round;
+        return 31 * h + currentSeat;
+    }
+}
@@ -1,4 +1,5 @@
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -9,10 +10,16 @@ import java.util.List;
  */
 public final class Intersection {
     private int nodeID;
-    private List<Edge> edges = new ArrayList<>();
-    private List<Tile> tiles = new ArrayList<>();
+    // A node of the hex map touches at most 3 edges and 3 tiles, so the lists are sized for that
+    private List<Edge> edges = new ArrayList<>(3);
+    private List<Tile> tiles = new ArrayList<>(3);
     private Player owner;
     private boolean isCity;
+    // The board this intersection belongs to, told about every ownership change so its bitboards stay in sync
+    private Board board;
+
+    // Cached neighbors, derived from the edges
+    private List<Intersection> adjacent;
 
     /**
      * The intersection is defined by its own unique ID
@@ -36,6 +43,7 @@ public final class Intersection {
     // Adder method to add the edges passed along in the method
     void addEdge(Edge e) {
         edges.add(e);
+        adjacent = null; // rebuilt on the next getAdjacentIntersections
     }
     // Adder method to add the tiles passed along in the method
     void addTile(Tile t) {
@@ -52,6 +60,7 @@ public final class Intersection {
     // Setter method to set the owner of the intersection
     public void setOwner(Player owner) {
         this.owner = owner;
+        if (board != null) board.intersectionChanged(this);
     }
     // isCity method returns true if the intersection is a city, false if not
     public boolean isCity() {
@@ -60,16 +69,32 @@ public final class Intersection {
     // Setter method to set the city if it exists in that spot
     public void setCity(boolean city) {
         isCity = city;
+        if (board != null) board.intersectionChanged(this);
+    }
+    // Setter method to set the owner and the city flag together, reported to the board as one change
+    void setPiece(Player owner, boolean city) {
+        this.owner = owner;
+        isCity = city;
+        if (board != null) board.intersectionChanged(this);
+    }
+
+    // Links the intersection to the board that tracks its ownership
+    void attachTo(Board board) {
+        this.board = board;
     }
 
-    // Getter method to return the list of intersections connected to an edge
+    // Getter method to return the (unmodifiable) list of intersections connected to an edge,
+    // built once from the edges and reused, so walking the neighbors never allocates
     public List<Intersection> getAdjacentIntersections() {
-        List<Intersection> intersections = new ArrayList<>();
-        //Looping over each edge and checking if the intersections is matching, it gets added to the list intersections
-        for (Edge edge : edges) {
-            Intersection other = (edge.getIntersection1() == this) ? edge.getIntersection2() : edge.getIntersection1();
-            intersections.add(other);
+        if (adjacent == null) {
+            List<Intersection> intersections = new ArrayList<>(edges.size());
+            //Looping over each edge and checking if the intersections is matching, it gets added to the list intersections
+            for (Edge edge : edges) {
+                Intersection other = (edge.getIntersection1() == this) ? edge.getIntersection2() : edge.getIntersection1();
+                intersections.add(other);
+            }
+            adjacent = Collections.unmodifiableList(intersections);
         }
-        return intersections;
+        return adjacent;
     }
 }
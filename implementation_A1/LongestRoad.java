@@ -0,0 +1,269 @@
+import java.util.Arrays;
+
+/**
+ * LongestRoad computes the longest continuous trail of each seat's roads, the way the longest road card is
+ * awarded: a trail may not use a road twice and may not pass through a node built on by another player
+ * (it can still end there).
+ *
+ * Results are cached per seat. Roads are grouped into connected components; a build, an undo or a settlement
+ * placed on one of the seat's roads only marks the touched components dirty, and the next query re-runs the
+ * trail search for those components only. A query walks the seat's own roads, not every edge of the board.
+ *
+ * The search itself is still a depth first search over trails, exponential in the number of loops of a
+ * component; it is the one query of the board that is not linear. It only starts at the nodes a longest trail
+ * can start from (see isTrailStart), which on a road network without loops makes a component O(ends * roads).
+ */
+final class LongestRoad {
+
+    private final int edgeCount;
+
+    // shared topology: endpoints of each edge and the edges touching each node
+    private final BoardTopology topology;
+
+    // per seat: component id of each owned edge (-1 if the seat does not own it) [seat * edgeCount + edge]
+    private final int[] componentOf;
+    // per seat: longest trail of the component whose id is the index [seat * edgeCount + componentId]
+    private final int[] componentLongest;
+    // per seat: edges whose component must be searched again
+    private final boolean[] dirty;
+    // per seat: component ids marked since the last query [seat * edgeCount + componentId], spread to their
+    // edges by the next query so marking a component costs O(1) (builds and unmakes mark far more than they query)
+    private final boolean[] componentDirty;
+    // per seat: the marked component ids, in marking order [seat * edgeCount + k], k < markedCount[seat]
+    private final int[] markedComponents;
+    private final int[] markedCount;
+    // per seat: the edges the seat owns [seat * edgeCount + k], k < ownedCount[seat], and the position of each
+    // owned edge in that list [seat * edgeCount + edge]
+    private final int[] ownedEdges;
+    private final int[] ownedCount;
+    private final int[] ownedIndex;
+    private final boolean[] seatStale;
+    private final int[] longest;
+
+    // node owner seat (-1 = free), mirrored from the board to know which nodes block a trail
+    private final int[] nodeSeat;
+
+    // scratch buffers reused by every search
+    private final boolean[] usedEdge;
+    private final boolean[] seenNode;
+    private final int[] stack;
+
+    LongestRoad(BoardTopology topology) {
+        this.topology = topology;
+        int nodeCount = topology.getNodeCount();
+        edgeCount = topology.getEdgeCount();
+
+        int seats = BoardBitboards.SEATS;
+        componentOf = new int[seats * edgeCount];
+        Arrays.fill(componentOf, -1);
+        componentLongest = new int[seats * edgeCount];
+        dirty = new boolean[seats * edgeCount];
+        componentDirty = new boolean[seats * edgeCount];
+        markedComponents = new int[seats * edgeCount];
+        markedCount = new int[seats];
+        ownedEdges = new int[seats * edgeCount];
+        ownedCount = new int[seats];
+        ownedIndex = new int[seats * edgeCount];
+        seatStale = new boolean[seats];
+        longest = new int[seats];
+        nodeSeat = new int[nodeCount];
+        Arrays.fill(nodeSeat, -1);
+
+        usedEdge = new boolean[edgeCount];
+        seenNode = new boolean[nodeCount];
+        stack = new int[edgeCount];
+    }
+
+    /**
+     * @return the longest trail of the seat's roads, searching again only the components touched since the last query
+     */
+    int longestRoad(int seat) {
+        if (!seatStale[seat]) return longest[seat];
+
+        int base = seat * edgeCount;
+        int owned = ownedCount[seat];
+        for (int k = 0; k < owned; k++) {
+            int e = ownedEdges[base + k];
+            if (componentDirty[base + componentOf[base + e]]) dirty[base + e] = true;
+        }
+        for (int k = 0; k < markedCount[seat]; k++) {
+            componentDirty[base + markedComponents[base + k]] = false;
+        }
+        markedCount[seat] = 0;
+
+        for (int k = 0; k < owned; k++) {
+            int e = ownedEdges[base + k];
+            if (dirty[base + e]) rebuildComponent(seat, e);
+        }
+
+        int best = 0;
+        for (int k = 0; k < owned; k++) {
+            best = Math.max(best, componentLongest[base + componentOf[base + ownedEdges[base + k]]]);
+        }
+        longest[seat] = best;
+        seatStale[seat] = false;
+        return best;
+    }
+
+    /**
+     * Called when an edge changes owner
+     */
+    void edgeChanged(int edge, int oldSeat, int newSeat) {
+        if (oldSeat == newSeat) return;
+        if (oldSeat >= 0) {
+            // the old component may split: search everything that was connected to the edge again
+            markComponentDirty(oldSeat, componentOf[oldSeat * edgeCount + edge]);
+            componentOf[oldSeat * edgeCount + edge] = -1;
+            dirty[oldSeat * edgeCount + edge] = false;
+            removeOwned(oldSeat, edge);
+        }
+        if (newSeat >= 0) {
+            // the new road may merge the components touching its endpoints
+            int base = newSeat * edgeCount;
+            componentOf[base + edge] = edge;
+            dirty[base + edge] = true;
+            ownedIndex[base + edge] = ownedCount[newSeat];
+            ownedEdges[base + ownedCount[newSeat]++] = edge;
+            markNodeDirty(newSeat, topology.edgeNodeA(edge));
+            markNodeDirty(newSeat, topology.edgeNodeB(edge));
+            seatStale[newSeat] = true;
+        }
+    }
+
+    /**
+     * Called when a node changes owner: a building can cut (or, on undo, reconnect) the trails running through it
+     * @param roadTouches true if a road of any seat touches the node; without one no trail can change
+     */
+    void nodeChanged(int node, int newSeat, boolean roadTouches) {
+        if (nodeSeat[node] == newSeat) return;
+        nodeSeat[node] = newSeat;
+        if (!roadTouches) return;
+        for (int s = 0; s < BoardBitboards.SEATS; s++) {
+            markNodeDirty(s, node);
+        }
+    }
+
+    // True if the seat's next query has components to search again
+    boolean isStale(int seat) {
+        return seatStale[seat];
+    }
+
+    // Marks dirty the components of the seat's roads touching the node
+    private void markNodeDirty(int seat, int node) {
+        int base = seat * edgeCount;
+        for (int k = topology.nodeEdgeStart(node); k < topology.nodeEdgeEnd(node); k++) {
+            int component = componentOf[base + topology.nodeEdge(k)];
+            if (component >= 0) markComponentDirty(seat, component);
+        }
+    }
+
+    private void markComponentDirty(int seat, int component) {
+        if (component < 0) return;
+        int base = seat * edgeCount;
+        if (!componentDirty[base + component]) {
+            componentDirty[base + component] = true;
+            markedComponents[base + markedCount[seat]++] = component;
+        }
+        seatStale[seat] = true;
+    }
+
+    // Removes the edge from the seat's owned list, moving the last owned edge into its place
+    private void removeOwned(int seat, int edge) {
+        int base = seat * edgeCount;
+        int last = ownedEdges[base + --ownedCount[seat]];
+        ownedEdges[base + ownedIndex[base + edge]] = last;
+        ownedIndex[base + last] = ownedIndex[base + edge];
+    }
+
+    /**
+     * Flood fills the component of the start edge (roads sharing a node), labels it with the start edge's id,
+     * then searches the longest trail inside it
+     */
+    private void rebuildComponent(int seat, int start) {
+        int base = seat * edgeCount;
+        int size = 0;
+        stack[size++] = start;
+        componentOf[base + start] = start;
+        dirty[base + start] = false;
+        int member = 0;
+        while (member < size) {
+            int e = stack[member++];
+            size = collectNeighbours(seat, topology.edgeNodeA(e), start, size);
+            size = collectNeighbours(seat, topology.edgeNodeB(e), start, size);
+        }
+
+        // each node of the component is tried once, and only if a longest trail can start there
+        int best = -1;
+        for (int m = 0; m < size; m++) {
+            int e = stack[m];
+            best = Math.max(best, searchFrom(seat, topology.edgeNodeA(e)));
+            best = Math.max(best, searchFrom(seat, topology.edgeNodeB(e)));
+        }
+        for (int m = 0; m < size; m++) {
+            seenNode[topology.edgeNodeA(stack[m])] = false;
+            seenNode[topology.edgeNodeB(stack[m])] = false;
+        }
+        // no node to start from: every node has an even number of the seat's roads and none is blocked,
+        // so one trail (an Euler circuit) uses every road of the component
+        componentLongest[base + start] = best < 0 ? size : best;
+    }
+
+    // Longest trail from the node if it is the first time the component search meets it and a trail can start there,
+    // -1 otherwise
+    private int searchFrom(int seat, int node) {
+        if (seenNode[node]) return -1;
+        seenNode[node] = true;
+        return isTrailStart(seat, node) ? trailFrom(seat, node) : -1;
+    }
+
+    /**
+     * A longest trail can be taken to start at another player's building or at a node with an odd number of the
+     * seat's roads. From any other node, a trail that does not come back to it leaves one of its roads unused
+     * (it uses an odd number of an even count), and that road can be put in front of the trail to make it longer.
+     * A trail that does come back to it can only be longest if it is the whole component.
+     */
+    private boolean isTrailStart(int seat, int node) {
+        if (nodeSeat[node] >= 0 && nodeSeat[node] != seat) return true;
+        int base = seat * edgeCount;
+        int degree = 0;
+        for (int k = topology.nodeEdgeStart(node); k < topology.nodeEdgeEnd(node); k++) {
+            if (componentOf[base + topology.nodeEdge(k)] >= 0) degree++;
+        }
+        return (degree & 1) == 1;
+    }
+
+    private int collectNeighbours(int seat, int node, int component, int size) {
+        int base = seat * edgeCount;
+        for (int k = topology.nodeEdgeStart(node); k < topology.nodeEdgeEnd(node); k++) {
+            int f = topology.nodeEdge(k);
+            int c = componentOf[base + f];
+            // stale labels (dirty, or left over from a merged component) are taken over by this component
+            if (c >= 0 && (c != component || dirty[base + f])) {
+                componentOf[base + f] = component;
+                dirty[base + f] = false;
+                stack[size++] = f;
+            }
+        }
+        return size;
+    }
+
+    // Longest trail of the seat's roads starting at the node (depth first, each road used at most once)
+    private int trailFrom(int seat, int node) {
+        int base = seat * edgeCount;
+        int best = 0;
+        for (int k = topology.nodeEdgeStart(node); k < topology.nodeEdgeEnd(node); k++) {
+            int f = topology.nodeEdge(k);
+            if (componentOf[base + f] < 0 || usedEdge[f]) continue;
+            usedEdge[f] = true;
+            int next = topology.nodeNeighbor(k);
+            int length = 1;
+            // a trail can end on another player's building but not pass through it
+            if (nodeSeat[next] < 0 || nodeSeat[next] == seat) {
+                length += trailFrom(seat, next);
+            }
+            best = Math.max(best, length);
+            usedEdge[f] = false;
+        }
+        return best;
+    }
+}
@@ -0,0 +1,239 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * MctsAgent chooses an AI action by Monte Carlo tree search over the legal moves of the turn. The tree is the
+ * decision of the turn: one child per legal, affordable move (cities, settlements, roads as MoveGenerator lists
+ * them). Each iteration picks a child with UCB1, plays that move on a copy of the game, then plays the game on
+ * with the rule-based agent (the default rollout policy, with the real dice rules) and scores the result for the
+ * deciding seat. The most visited move is played.
+ *
+ * Rollouts run on private games restored from a GameSnapshot of the real game, one per worker, so the real game
+ * is never touched. With more than one thread the iteration budget is split over the workers (root
+ * parallelization) and their statistics are summed in worker order. Worker seeds come from the agent's seed only,
+ * so with an iteration budget the choices are the same on every run (and for one thread, the same as a sequential
+ * search); a time budget makes the number of iterations, and so the choice, depend on the machine.
+ */
+public final class MctsAgent implements Agent, AutoCloseable {
+
+    // UCB1 exploration constant for rewards in [0, 1]
+    private static final double EXPLORATION = Math.sqrt(2.0);
+
+    private final Game game;
+    private final Random random;
+    private final int iterations;
+    private final long timeBudgetNanos;
+    private final int rolloutRounds;
+    private final Worker[] workers;
+
+    // Pool running the workers when there is more than one, created on the first search
+    private ExecutorService pool;
+    // Rule decisions shared by the rollout games of every worker, null if they decide from scratch
+    private DecisionCache rolloutCache;
+
+    /**
+     * Agent with an iteration budget, rollouts played to the end of the game
+     * @param game the game the agent plays in (its snapshots are the roots of the searches)
+     * @param seed the seed of every random choice of the searches
+     * @param iterations rollouts per decision, over all workers
+     * @param threads the number of workers running rollouts in parallel
+     */
+    public MctsAgent(Game game, long seed, int iterations, int threads) {
+        this(game, seed, iterations, 0L, threads, 0);
+    }
+
+    /**
+     * @param game the game the agent plays in (its snapshots are the roots of the searches)
+     * @param seed the seed of every random choice of the searches
+     * @param iterations rollouts per decision, over all workers
+     * @param timeBudgetMillis if positive, a decision also stops when this time is spent
+     * @param threads the number of workers running rollouts in parallel
+     * @param rolloutRounds if positive, a rollout stops that many rounds after the decision (scored on vpoints)
+     */
+    public MctsAgent(Game game, long seed, int iterations, long timeBudgetMillis, int threads, int rolloutRounds) {
+        if (iterations < 1) {
+            throw new IllegalArgumentException("iterations must be at least 1. Found: " + iterations);
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1. Found: " + threads);
+        }
+        this.game = game;
+        this.random = new Random(seed);
+        this.iterations = iterations;
+        this.timeBudgetNanos = timeBudgetMillis * 1_000_000L;
+        this.rolloutRounds = rolloutRounds;
+        this.workers = new Worker[threads];
+    }
+
+    @Override
+    public Command selectAction(Player player, Board board, Resources resources) {
+        if (board != game.getBoard()) {
+            throw new IllegalArgumentException("MctsAgent plays on the board of the game it was created for");
+        }
+        TurnAnalysis turn = new TurnAnalysis(player, board, resources);
+        int[] moves = new int[2 * board.intersectionCount() + board.edgeCount()];
+        int count = board.getMoves().generate(player,
+                turn.canAffordCity(), turn.canAffordSettlement(), turn.canAffordRoad(), moves);
+        if (count == 0) return null;
+        if (count == 1) return RuleDecision.of(1.0, moves[0], turn).createCommand();
+
+        GameSnapshot root = game.snapshot();
+        long decisionSeed = random.nextLong();
+        long deadline = timeBudgetNanos > 0 ? System.nanoTime() + timeBudgetNanos : Long.MAX_VALUE;
+
+        int[] visits = new int[count];
+        double[] rewards = new double[count];
+        search(root, player.getSeat(), moves, count, decisionSeed, deadline, visits, rewards);
+
+        // most visited move, the first one on a tie
+        int best = 0;
+        for (int c = 1; c < count; c++) {
+            if (visits[c] > visits[best]) best = c;
+        }
+        return RuleDecision.of(visits[best] == 0 ? 0.0 : rewards[best] / visits[best], moves[best], turn).createCommand();
+    }
+
+    // Runs the workers (inline for one) and sums their statistics in worker order
+    private void search(GameSnapshot root, int seat, int[] moves, int count, long decisionSeed, long deadline,
+                        int[] visits, double[] rewards) {
+        List<Callable<Worker>> tasks = new ArrayList<>(workers.length);
+        for (int w = 0; w < workers.length; w++) {
+            if (workers[w] == null) workers[w] = new Worker();
+            Worker worker = workers[w];
+            int share = iterations / workers.length + (w < iterations % workers.length ? 1 : 0);
+            long seed = ParallelGameRunner.gameSeed(decisionSeed, w);
+            // workers try the unvisited moves from different starting points, so small shares still cover them all
+            int firstChild = (int) ((long) w * count / workers.length);
+            tasks.add(() -> worker.run(root, seat, moves, count, firstChild, share, seed, deadline));
+        }
+
+        try {
+            if (workers.length == 1) {
+                tasks.get(0).call();
+            } else {
+                if (pool == null) pool = Executors.newFixedThreadPool(workers.length, r -> {
+                    Thread t = new Thread(r, "mcts-worker");
+                    t.setDaemon(true);
+                    return t;
+                });
+                for (Future<Worker> f : pool.invokeAll(tasks)) {
+                    f.get();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Search interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Rollout failed", e.getCause());
+        } catch (Exception e) {
+            throw new IllegalStateException("Rollout failed", e);
+        }
+
+        for (Worker worker : workers) {
+            for (int c = 0; c < count; c++) {
+                visits[c] += worker.visits[c];
+                rewards[c] += worker.rewards[c];
+            }
+        }
+    }
+
+    /**
+     * Makes the rollouts of every worker share one cache of rule decisions (rollouts from the same root often
+     * reach the same positions); the choices are the same with or without it
+     * @param cache the cache, null to stop caching
+     */
+    public void setRolloutCache(DecisionCache cache) {
+        this.rolloutCache = cache;
+        for (Worker worker : workers) {
+            if (worker != null && worker.rollout != null) worker.rollout.setDecisionCache(cache);
+        }
+    }
+
+    /**
+     * Stops the worker threads; the agent can't search in parallel afterwards
+     */
+    @Override
+    public void close() {
+        if (pool != null) pool.shutdownNow();
+    }
+
+    /**
+     * One worker: a private rollout game and the statistics of its share of the iterations
+     */
+    private final class Worker {
+        // seeds the rollout game's dice, robber and rule agent before each rollout
+        private final Random rolloutRandom = new Random(0L);
+        private Game rollout;
+        private int[] visits = new int[0];
+        private double[] rewards = new double[0];
+
+        Worker run(GameSnapshot root, int seat, int[] moves, int count, int firstChild, int share, long seed,
+                   long deadline) {
+            if (rollout == null) rollout = createRolloutGame();
+            if (visits.length < count) {
+                visits = new int[count];
+                rewards = new double[count];
+            }
+            Arrays.fill(visits, 0, count, 0);
+            Arrays.fill(rewards, 0, count, 0.0);
+
+            Random seeds = new Random(seed);
+            int lastRound = rolloutRounds > 0 ? root.getRound() + rolloutRounds : Integer.MAX_VALUE;
+            for (int i = 0; i < share && System.nanoTime() < deadline; i++) {
+                int child = selectChild(i, count, firstChild);
+                rollout.restore(root);
+                rolloutRandom.setSeed(seeds.nextLong());
+                rollout.playMoveAndEndTurn(moves[child]);
+                rollout.playOut(lastRound);
+                visits[child]++;
+                rewards[child] += reward(seat);
+            }
+            return this;
+        }
+
+        // UCB1: every child once in move order (from firstChild on), then the highest upper confidence bound
+        // (first one on a tie)
+        private int selectChild(int played, int count, int firstChild) {
+            if (played < count) return (firstChild + played) % count;
+            double logTotal = Math.log(played);
+            int best = 0;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (int c = 0; c < count; c++) {
+                double value = rewards[c] / visits[c] + EXPLORATION * Math.sqrt(logTotal / visits[c]);
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = c;
+                }
+            }
+            return best;
+        }
+
+        // Half for finishing first, half for the vpoints reached (capped at the winning total)
+        private double reward(int seat) {
+            Player me = rollout.getPlayers().get(seat);
+            double points = Math.min(rollout.getVictoryPoints(me), Game.VICTORY_POINTS_TO_WIN);
+            double won = rollout.getWinner() == me ? 1.0 : 0.0;
+            return 0.5 * won + 0.5 * points / Game.VICTORY_POINTS_TO_WIN;
+        }
+
+        // A headless game over the same map, driven by rolloutRandom; its state is replaced by every restore
+        private Game createRolloutGame() {
+            Board board = new Board(game.getBoard().getTopology());
+            Resources bank = Resources.createDefaultCollection();
+            MultiDice dice = new MultiDice();
+            dice.addDice(new RegularDice(6, rolloutRandom));
+            dice.addDice(new RegularDice(6, rolloutRandom));
+            ResourceProduction production = new ResourceProduction(dice, bank, board, rolloutRandom);
+            Game rolloutGame = new Game(board, bank, production, game.getMaxRound(), rolloutRandom, true);
+            rolloutGame.setDecisionCache(rolloutCache);
+            return rolloutGame;
+        }
+    }
+}
@@ -0,0 +1,251 @@
+/**
+ * MoveGenerator keeps, for every seat, the set of moves the board currently allows: the free edges it can
+ * build a road on, the free spots its roads reach for a settlement and its settlements it can upgrade.
+ *
+ * The sets are bitsets updated incrementally: the Intersection and Edge setters report every change through
+ * Board, and only the nodes and edges around the change are checked again. Moves are written as ints
+ * (type << 16 | node or edge id) into a caller supplied buffer, lowest id first, so generating the moves of a
+ * turn does not allocate. Affordability is left to the caller.
+ */
+public final class MoveGenerator {
+
+    // Move types, stored in the high bits of an encoded move
+    public static final int CITY = 1;
+    public static final int SETTLEMENT = 2;
+    public static final int ROAD = 3;
+
+    private static final int SEATS = BoardBitboards.SEATS;
+
+    private final BoardBitboards bitboards;
+    private final int nodeWords;
+    private final int edgeWords;
+
+    // shared topology: endpoints of each edge, edges and neighbors of each node
+    private final BoardTopology topology;
+
+    // nodes where a settlement may stand (free and no building next to it), shared by all seats
+    private final long[] freeSpots;
+    // per seat: nodes touched by one of the seat's roads [seat * nodeWords + w]
+    private final long[] roadNodes;
+    // per seat: free edges connected to the seat's roads or buildings [seat * edgeWords + w]
+    private final long[] buildableRoads;
+
+    MoveGenerator(BoardBitboards bitboards, BoardTopology topology) {
+        this.bitboards = bitboards;
+        this.topology = topology;
+        nodeWords = topology.getNodeWords();
+        edgeWords = topology.getEdgeWords();
+
+        freeSpots = new long[nodeWords];
+        roadNodes = new long[SEATS * nodeWords];
+        buildableRoads = new long[SEATS * edgeWords];
+        for (int n = 0; n < topology.getNodeCount(); n++) {
+            refreshSpot(n);
+        }
+    }
+
+    // ---- encoding ----
+
+    public static int encode(int type, int id) {
+        return type << 16 | id;
+    }
+
+    public static int typeOf(int move) {
+        return move >>> 16;
+    }
+
+    public static int idOf(int move) {
+        return move & 0xFFFF;
+    }
+
+    // ---- sync from the board ----
+
+    // Called after a node changed owner (from oldSeat to newSeat, -1 = nobody). A city upgrade changes no set.
+    void nodeChanged(int node, int oldSeat, int newSeat) {
+        // occupancy only changes when the node is taken or freed: the spot and its neighbors follow
+        boolean occupancyChanged = oldSeat < 0 || newSeat < 0;
+        if (occupancyChanged) refreshSpot(node);
+        for (int k = topology.nodeEdgeStart(node); k < topology.nodeEdgeEnd(node); k++) {
+            if (occupancyChanged) refreshSpot(topology.nodeNeighbor(k));
+            // only the two seats involved gain or lose the building the edges around it connect to
+            int edge = topology.nodeEdge(k);
+            if (oldSeat >= 0) refreshRoad(edge, oldSeat);
+            if (newSeat >= 0) refreshRoad(edge, newSeat);
+        }
+    }
+
+    // Called after an edge changed owner (from oldSeat to newSeat, -1 = nobody): the edge itself for every seat,
+    // and the edges around an endpoint only for the two seats involved, when their roads start or stop reaching it
+    void edgeChanged(int edge, int oldSeat, int newSeat) {
+        if (oldSeat >= 0) refreshRoadNodes(edge, oldSeat);
+        if (newSeat >= 0) refreshRoadNodes(edge, newSeat);
+        refreshRoad(edge);
+    }
+
+    private void refreshRoadNodes(int edge, int seat) {
+        refreshRoadNode(topology.edgeNodeA(edge), seat);
+        refreshRoadNode(topology.edgeNodeB(edge), seat);
+    }
+
+    // Rereads whether the seat's roads reach the node; only if that changed can the roads around it change
+    private void refreshRoadNode(int node, int seat) {
+        boolean reached = bitboards.hasRoadAt(seat, node);
+        if (reached == hasBit(roadNodes, seat * nodeWords, node)) return;
+        setBit(roadNodes, seat * nodeWords, node, reached);
+        for (int k = topology.nodeEdgeStart(node); k < topology.nodeEdgeEnd(node); k++) {
+            refreshRoad(topology.nodeEdge(k), seat);
+        }
+    }
+
+    private void refreshSpot(int node) {
+        setBit(freeSpots, 0, node, !bitboards.isOccupied(node) && !bitboards.anyNeighborOccupied(node));
+    }
+
+    private void refreshRoad(int edge) {
+        if (bitboards.isEdgeOwned(edge)) {
+            // a taken edge is nobody's road to build
+            for (int s = 0; s < SEATS; s++) {
+                setBit(buildableRoads, s * edgeWords, edge, false);
+            }
+            return;
+        }
+        for (int s = 0; s < SEATS; s++) {
+            refreshRoad(edge, s);
+        }
+    }
+
+    // Same rule as BoardBitboards.isEdgeConnected, read from roadNodes (already up to date) instead of walking
+    // the roads around both endpoints
+    private void refreshRoad(int edge, int seat) {
+        int a = topology.edgeNodeA(edge);
+        int b = topology.edgeNodeB(edge);
+        boolean connected = !bitboards.isEdgeOwned(edge)
+                && (bitboards.ownsNode(seat, a) || bitboards.ownsNode(seat, b)
+                || hasBit(roadNodes, seat * nodeWords, a) || hasBit(roadNodes, seat * nodeWords, b));
+        setBit(buildableRoads, seat * edgeWords, edge, connected);
+    }
+
+    // ---- queries ----
+
+    /**
+     * @return the lowest free edge connected to the player's roads or buildings, -1 if none
+     */
+    public int firstRoad(Player p) {
+        return firstBit(buildableRoads, p.getSeat() * edgeWords, edgeWords);
+    }
+
+    /**
+     * @return the lowest free edge with both ends touching the player's roads (it joins two road ends), -1 if none
+     */
+    public int firstConnectingRoad(Player p) {
+        int seat = p.getSeat();
+        for (int w = 0; w < edgeWords; w++) {
+            long bits = buildableRoads[seat * edgeWords + w];
+            while (bits != 0) {
+                int edge = (w << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                if (hasBit(roadNodes, seat * nodeWords, topology.edgeNodeA(edge))
+                        && hasBit(roadNodes, seat * nodeWords, topology.edgeNodeB(edge))) {
+                    return edge;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the lowest free spot (distance rule included) reached by one of the player's roads, -1 if none
+     */
+    public int firstSettlementSpot(Player p) {
+        int base = p.getSeat() * nodeWords;
+        for (int w = 0; w < nodeWords; w++) {
+            long bits = freeSpots[w] & roadNodes[base + w];
+            if (bits != 0) return (w << 6) + Long.numberOfTrailingZeros(bits);
+        }
+        return -1;
+    }
+
+    /**
+     * @return the lowest node holding one of the player's settlements, -1 if none
+     */
+    public int firstCityUpgrade(Player p) {
+        int seat = p.getSeat();
+        for (int w = 0; w < nodeWords; w++) {
+            long bits = bitboards.settlementWord(seat, w);
+            if (bits != 0) return (w << 6) + Long.numberOfTrailingZeros(bits);
+        }
+        return -1;
+    }
+
+    /**
+     * Writes every node a settlement may be placed on right now (initial placement: no road needed), lowest id first
+     * @param out buffer receiving the node ids, at least one slot per node
+     * @return the number of nodes written
+     */
+    public int freeSpots(int[] out) {
+        int count = 0;
+        for (int w = 0; w < nodeWords; w++) {
+            long bits = freeSpots[w];
+            while (bits != 0) {
+                out[count++] = (w << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Writes the player's legal moves into the buffer: city upgrades, then settlements, then roads, each lowest id first
+     * @param city include the city upgrades (the player can afford a city)
+     * @param settlement include the settlement spots
+     * @param road include the roads
+     * @param out buffer receiving the encoded moves, large enough for every node twice plus every edge
+     * @return the number of moves written
+     */
+    public int generate(Player p, boolean city, boolean settlement, boolean road, int[] out) {
+        int seat = p.getSeat();
+        int count = 0;
+        if (city) {
+            for (int w = 0; w < nodeWords; w++) {
+                count = writeBits(bitboards.settlementWord(seat, w), w, CITY, out, count);
+            }
+        }
+        if (settlement) {
+            for (int w = 0; w < nodeWords; w++) {
+                count = writeBits(freeSpots[w] & roadNodes[seat * nodeWords + w], w, SETTLEMENT, out, count);
+            }
+        }
+        if (road) {
+            for (int w = 0; w < edgeWords; w++) {
+                count = writeBits(buildableRoads[seat * edgeWords + w], w, ROAD, out, count);
+            }
+        }
+        return count;
+    }
+
+    // ---- helpers ----
+
+    private static int writeBits(long bits, int word, int type, int[] out, int count) {
+        while (bits != 0) {
+            out[count++] = encode(type, (word << 6) + Long.numberOfTrailingZeros(bits));
+            bits &= bits - 1;
+        }
+        return count;
+    }
+
+    private static int firstBit(long[] words, int base, int length) {
+        for (int w = 0; w < length; w++) {
+            if (words[base + w] != 0) return (w << 6) + Long.numberOfTrailingZeros(words[base + w]);
+        }
+        return -1;
+    }
+
+    private static boolean hasBit(long[] words, int base, int bit) {
+        return (words[base + (bit >>> 6)] & (1L << bit)) != 0;
+    }
+
+    private static void setBit(long[] words, int base, int bit, boolean value) {
+        if (value) words[base + (bit >>> 6)] |= 1L << bit;
+        else words[base + (bit >>> 6)] &= ~(1L << bit);
+    }
+}
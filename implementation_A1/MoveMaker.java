@@ -0,0 +1,126 @@
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * MoveMaker applies and takes back MoveGenerator moves on a game in place, for AI search that explores many
+ * lines of play from one position. It is the search counterpart of the Command classes: make() checks the
+ * cost and the placement rules before touching anything (so nothing is ever paid and refunded), builds through
+ * the Board rules and pays the bank; unmake() takes the last move back and returns its cost.
+ *
+ * Every made move is one int on an undo stack (seat << 24 | move), so make and unmake allocate nothing once the
+ * stack has grown to the search depth, and they print nothing. After unmake the game is bit-identical to the
+ * state before the matching make: ownership, hands, bank, build records and everything the board derives from
+ * them (VP ledger, legal moves, longest roads).
+ */
+public final class MoveMaker {
+
+    // Resource.values() clones its array on every call, so the search loops use this copy
+    private static final Resource[] RESOURCES = Resource.values();
+
+    // Cost of each move type, indexed by MoveGenerator type then Resource.ordinal()
+    private static final int[][] COSTS = new int[4][RESOURCES.length];
+    static {
+        COSTS[MoveGenerator.CITY][Resource.ORE.ordinal()] = 3;
+        COSTS[MoveGenerator.CITY][Resource.GRAIN.ordinal()] = 2;
+        COSTS[MoveGenerator.SETTLEMENT][Resource.BRICK.ordinal()] = 1;
+        COSTS[MoveGenerator.SETTLEMENT][Resource.LUMBER.ordinal()] = 1;
+        COSTS[MoveGenerator.SETTLEMENT][Resource.WOOL.ordinal()] = 1;
+        COSTS[MoveGenerator.SETTLEMENT][Resource.GRAIN.ordinal()] = 1;
+        COSTS[MoveGenerator.ROAD][Resource.BRICK.ordinal()] = 1;
+        COSTS[MoveGenerator.ROAD][Resource.LUMBER.ordinal()] = 1;
+    }
+
+    private final Board board;
+    private final Resources resources;
+    private final Player[] bySeat = new Player[BoardBitboards.SEATS];
+
+    // made moves, most recent last: seat << 24 | encoded move
+    private int[] undoStack = new int[64];
+    private int depth;
+
+    /**
+     * @param game the game whose board, bank and players the moves are made on
+     */
+    public MoveMaker(Game game) {
+        this(game.getBoard(), game.getResources(), game.getPlayers());
+    }
+
+    MoveMaker(Board board, Resources resources, List<Player> players) {
+        this.board = board;
+        this.resources = resources;
+        for (Player p : players) bySeat[p.getSeat()] = p;
+    }
+
+    /**
+     * Pays for and builds the move if the player can afford it and the board allows it
+     * @param p the player making the move
+     * @param move a MoveGenerator encoded move
+     * @return true if the move was made (and pushed on the undo stack), false if nothing changed
+     */
+    public boolean make(Player p, int move) {
+        int type = MoveGenerator.typeOf(move);
+        if (type < MoveGenerator.CITY || type > MoveGenerator.ROAD) return false;
+        int[] cost = COSTS[type];
+        for (int r = 0; r < cost.length; r++) {
+            if (p.getResourceCount(RESOURCES[r]) < cost[r]) return false;
+        }
+
+        int id = MoveGenerator.idOf(move);
+        boolean built;
+        switch (type) {
+            case MoveGenerator.CITY:
+                built = id < board.intersectionCount() && board.buildCity(p, board.intersectionAt(id));
+                break;
+            case MoveGenerator.SETTLEMENT:
+                built = id < board.intersectionCount() && board.buildSettlement(p, board.intersectionAt(id));
+                break;
+            default:
+                built = id < board.edgeCount() && board.buildRoad(p, board.edgeAt(id));
+                break;
+        }
+        if (!built) return false;
+
+        for (int r = 0; r < cost.length; r++) {
+            if (cost[r] > 0) resources.spendResources(cost[r], p, RESOURCES[r]);
+        }
+        if (depth == undoStack.length) undoStack = Arrays.copyOf(undoStack, depth * 2);
+        undoStack[depth++] = p.getSeat() << 24 | move;
+        return true;
+    }
+
+    /**
+     * Takes back the last made move and returns its cost to the player
+     * @throws IllegalStateException if no move is left to take back
+     */
+    public void unmake() {
+        if (depth == 0) throw new IllegalStateException("no move to unmake");
+        int entry = undoStack[--depth];
+        Player p = bySeat[entry >>> 24];
+        int move = entry & 0xFFFFFF;
+        int id = MoveGenerator.idOf(move);
+        int type = MoveGenerator.typeOf(move);
+        switch (type) {
+            case MoveGenerator.CITY:
+                board.intersectionAt(id).setCity(false);
+                p.unrecordCityBuilt();
+                break;
+            case MoveGenerator.SETTLEMENT:
+                board.intersectionAt(id).setPiece(null, false);
+                p.unrecordSettlementBuilt();
+                break;
+            default:
+                board.edgeAt(id).setOwner(null);
+                p.unrecordRoadBuilt();
+                break;
+        }
+        int[] cost = COSTS[type];
+        for (int r = 0; r < cost.length; r++) {
+            if (cost[r] > 0) resources.giveResources(cost[r], p, RESOURCES[r]);
+        }
+    }
+
+    // Getter method to return the number of made moves not taken back yet
+    public int getDepth() {
+        return depth;
+    }
+}
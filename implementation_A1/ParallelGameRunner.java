@@ -0,0 +1,103 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ParallelGameRunner plays many independent headless games across a pool of worker threads.
+ * Every game builds its own Board, Resources, ResourceProduction, Game and RuleBasedAgent through
+ * Simulator.createGame, so nothing mutable is shared between threads but the optional DecisionCache, which is
+ * made for concurrent use and doesn't change the games played.
+ *
+ * The seed of game i is derived from the master seed and i only (see gameSeed), so the results are
+ * identical however many threads are used.
+ */
+public final class ParallelGameRunner {
+
+    private final int threads;
+    private final int maxRounds;
+    private final DecisionCache cache;
+
+    /**
+     * @param threads the number of worker threads (1 runs everything on a single worker)
+     * @param maxRounds the maximum number of rounds of each game
+     */
+    public ParallelGameRunner(int threads, int maxRounds) {
+        this(threads, maxRounds, null);
+    }
+
+    /**
+     * @param threads the number of worker threads (1 runs everything on a single worker)
+     * @param maxRounds the maximum number of rounds of each game
+     * @param cache rule decisions shared by every game of every run (all games use the standard map), or null
+     */
+    public ParallelGameRunner(int threads, int maxRounds, DecisionCache cache) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1. Found: " + threads);
+        }
+        this.threads = threads;
+        this.maxRounds = maxRounds;
+        this.cache = cache;
+    }
+
+    /**
+     * Plays games 0..games-1 and returns their results ordered by game index
+     * @param masterSeed the seed every per-game seed is derived from
+     * @param games the number of games to play
+     * @return the result of each game, index i holds game i
+     */
+    public GameResult[] run(long masterSeed, int games) {
+        GameResult[] results = new GameResult[games];
+        AtomicInteger nextGame = new AtomicInteger();
+
+        // Each worker keeps claiming the next unplayed game index, so fast and slow games balance out
+        List<Callable<Void>> workers = new ArrayList<>(threads);
+        for (int w = 0; w < threads; w++) {
+            workers.add(() -> {
+                int i;
+                while ((i = nextGame.getAndIncrement()) < games) {
+                    long seed = gameSeed(masterSeed, i);
+                    Game game = Simulator.createGame(seed, maxRounds, true);
+                    game.setDecisionCache(cache);
+                    game.start();
+                    results[i] = game.getResult(seed);
+                }
+                return null;
+            });
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            // Future.get() makes every result written by the workers visible to this thread
+            for (Future<Void> f : pool.invokeAll(workers)) {
+                f.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Batch run interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Game failed during batch run", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        return results;
+    }
+
+    /**
+     * Derives the seed of one game from the master seed and the game index (SplitMix64 finalizer),
+     * so neighbouring games get unrelated random streams
+     * @param masterSeed the seed of the whole batch
+     * @param gameIndex the index of the game in the batch
+     * @return the seed of that game
+     */
+    public static long gameSeed(long masterSeed, int gameIndex) {
+        long z = masterSeed + (gameIndex + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -1,7 +1,4 @@
-import java.util.ArrayList;
-import java.util.EnumMap;
-import java.util.List;
-import java.util.Map;
+import java.util.Arrays;
 
 /**
  * Player class used to instantiate the 4 players of the game, the identifier of the players
@@ -19,13 +16,16 @@ public class Player {
     private int citiesBuilt;
     private int settlementsBuilt;
 
-    // Resource cards in hand of player
-    // Note the use of Map (abstract) as declared type instead of concrete implementation (EnumMap)
-    private Map<Resource, Integer> resources = new EnumMap<>(Resource.class);
+    // Resource cards in hand of player, indexed by Resource.ordinal() so counting never boxes an Integer
+    private final int[] resources = new int[Resource.values().length];
+    // Running total of the cards in hand, kept in step with every add/remove
+    private int totalCards;
+    // Zobrist keys of the hand (see StateHash), kept in step with every add/remove
+    private long handHash;
 
-    // Built piece locations (IDs)
-    private List<Integer> roads = new ArrayList<>();        // edgeIDs
-    private List<Integer> settlements = new ArrayList<>();  // nodeIDs
+    // Built piece locations (IDs), in build order: the first roadsBuilt / settlementsBuilt entries are used
+    private int[] roads = new int[16];        // edgeIDs
+    private int[] settlements = new int[8];   // nodeIDs
 
     /**
      * Player constructor used to instantiate players to the game through passing the following params
@@ -35,11 +35,7 @@ public class Player {
     public Player(Color color, int age) {
         this.color = color;
         this.age = age;
-
-        // initialize all resource counts to 0 at the start of the player state
-        for (Resource r : Resource.values()) {
-            resources.put(r, 0);
-        }
+        // all resource counts start at 0 (int array default)
     }
 
     // Getter method to return the player color identification
@@ -47,45 +43,126 @@ public class Player {
         return color;
     }
 
+    // Getter method to return the seat of the player (its color's ordinal), used to index per-player board data
+    int getSeat() {
+        return color.ordinal();
+    }
+
     // Getter method to return the resource count of the player of the resource passed as param
     public int getResourceCount(Resource r) {
-        return resources.get(r);
+        return resources[r.ordinal()];
     }
 
     // addResource is a method used to fill the bank of resources of the player by the quantity passed along
     void addResource(Resource r, int amount) {
-        resources.put(r, getResourceCount(r) + amount);
+        setCount(r.ordinal(), resources[r.ordinal()] + amount);
+        totalCards += amount;
     }
 
     // Inverse concept of addResource as now we are taking away from the player resources
     void removeResource(Resource r, int amount) {
-        resources.put(r, getResourceCount(r) - amount);
+        setCount(r.ordinal(), resources[r.ordinal()] - amount);
+        totalCards -= amount;
     }
 
-    // totalResourceCards is a method used to return the total value count of the resources
-    int totalResourceCards() {
-        int total = 0;
-        for (Resource r : Resource.values()) {
-            total += getResourceCount(r);
+    // Changes one count and swaps its key in the hand hash; every change of the hand goes through here,
+    // so a negative count (removing more than is held) is refused before it reaches the hand or its hash
+    private void setCount(int r, int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException(getColor() + " can't hold a negative count of "
+                    + Resource.values()[r] + ". Found: " + count);
         }
-        return total;
+        int seat = getSeat();
+        handHash ^= StateHash.handKey(seat, r, resources[r]) ^ StateHash.handKey(seat, r, count);
+        resources[r] = count;
+    }
+
+    // Getter method to return the hash of the hand, this player's part of the game state hash
+    long getHandHash() {
+        return handHash;
+    }
+
+    // totalResourceCards is a method used to return the total value count of the resources (running count)
+    int totalResourceCards() {
+        return totalCards;
     }
 
     // Recording method used to track the number of roads built by the player
     void recordRoadBuilt(int edgeId) {
-        roadsBuilt++;
-        roads.add(edgeId);
+        if (roadsBuilt == roads.length) roads = Arrays.copyOf(roads, roadsBuilt * 2);
+        roads[roadsBuilt++] = edgeId;
     }
 
     // Recording method used to track the number of settlements built by the player
     void recordSettlementBuilt(int nodeId) {
-        settlementsBuilt++;
-        settlements.add(nodeId);
+        if (settlementsBuilt == settlements.length) settlements = Arrays.copyOf(settlements, settlementsBuilt * 2);
+        settlements[settlementsBuilt++] = nodeId;
     }
 
+    // Takes back the last recorded road (search unmake, see MoveMaker)
+    void unrecordRoadBuilt() {
+        roadsBuilt--;
+    }
+    // Takes back the last recorded settlement
+    void unrecordSettlementBuilt() {
+        settlementsBuilt--;
+    }
+    // Takes back the last recorded city
+    void unrecordCityBuilt() {
+        citiesBuilt--;
+    }
     // Recording method used to track the number of cities built by the player
     void recordCityBuilt() {
         citiesBuilt++;
         // City replaces settlement: net +1 VP (settlement was 1, city is 2)
     }
-}
\ No newline at end of file
+
+    // Copies the hand (indexed by Resource.ordinal()) into out, starting at offset
+    void saveHand(int[] out, int offset) {
+        System.arraycopy(resources, 0, out, offset, resources.length);
+    }
+
+    // Replaces the hand with the counts stored in in, starting at offset
+    void loadHand(int[] in, int offset) {
+        totalCards = 0;
+        for (int r = 0; r < resources.length; r++) {
+            setCount(r, in[offset + r]);
+            totalCards += resources[r];
+        }
+    }
+
+    // Number of ints saveRecords writes: the three counters, then the road and settlement IDs
+    int recordsSize() {
+        return 3 + roadsBuilt + settlementsBuilt;
+    }
+
+    /**
+     * Copies the build records into out, starting at offset
+     * @return the offset right after the records
+     */
+    int saveRecords(int[] out, int offset) {
+        out[offset++] = roadsBuilt;
+        out[offset++] = settlementsBuilt;
+        out[offset++] = citiesBuilt;
+        System.arraycopy(roads, 0, out, offset, roadsBuilt);
+        offset += roadsBuilt;
+        System.arraycopy(settlements, 0, out, offset, settlementsBuilt);
+        return offset + settlementsBuilt;
+    }
+
+    /**
+     * Replaces the build records with the ones saveRecords wrote at offset
+     * @return the offset right after the records
+     */
+    int loadRecords(int[] in, int offset) {
+        roadsBuilt = in[offset++];
+        settlementsBuilt = in[offset++];
+        citiesBuilt = in[offset++];
+        if (roads.length < roadsBuilt) roads = new int[roadsBuilt * 2];
+        System.arraycopy(in, offset, roads, 0, roadsBuilt);
+        offset += roadsBuilt;
+        if (settlements.length < settlementsBuilt) settlements = new int[settlementsBuilt * 2];
+        System.arraycopy(in, offset, settlements, 0, settlementsBuilt);
+        return offset + settlementsBuilt;
+    }
+}
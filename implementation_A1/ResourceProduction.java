@@ -6,9 +6,26 @@ import java.util.*;
  * passed, and it relies on many factors such as the availability of the resources from the bank
  */
 public class ResourceProduction {
+    private static final Resource[] RESOURCES = Resource.values();
+    private static final int RESOURCE_COUNT = RESOURCES.length;
+    private static final int SEATS = BoardBitboards.SEATS;
+
     private Dice dice;
     private Resources resources;
     private Board board;
+    // Randomness of the robber (tile, victim, discards and steal), shared with the game when seeded
+    private final Random random;
+
+    // Scratch list of robber victims (at most one per seat)
+    private final Player[] eligible = new Player[SEATS];
+
+    // Production table indexed by roll (0..12): per seat, per resource amounts and the bank total per resource.
+    // It is rebuilt only when the board's production version changes (a build, an undo or a robber move),
+    // so a regular roll is one lookup, one bank check and a few adds, without allocating.
+    private final int[] seatDemand = new int[13 * SEATS * RESOURCE_COUNT];   // [(roll * SEATS + seat) * RESOURCE_COUNT + r]
+    private final int[] totalDemand = new int[13 * RESOURCE_COUNT];          // [roll * RESOURCE_COUNT + r]
+    private final boolean[] rollProduces = new boolean[13];
+    private int tableVersion = -1;
 
     /**
      * Constructor used to generate one instance of the resourceProduction object that will be used to
@@ -16,11 +33,14 @@ public class ResourceProduction {
      * @param dice the dice that will be used to roll to implement a number
      * @param resources the resources passed from the resources class
      * @param board the instance of the board where the game is hosted
+     * @param random the randomizer used to move the robber, pick the victim and draw discarded or stolen cards,
+     *               the game's own randomizer so a seeded game replays every 7 identically
      */
-    public ResourceProduction(Dice dice, Resources resources, Board board) {
+    public ResourceProduction(Dice dice, Resources resources, Board board, Random random) {
         this.dice = dice;
         this.resources = resources;
         this.board = board;
+        this.random = random;
     }
 
     /**
@@ -37,70 +57,29 @@ public class ResourceProduction {
             return false;
         }
 
-        // 1) Find producing tiles
-        List<Tile> producingTiles = board.getTilesByToken(rollSum);
-        if (producingTiles.isEmpty()) {
-            return false;
-        }
-
-        // 2) Compute total demand (avoid partial distribution)
-        EnumMap<Resource, Integer> totalDemand = new EnumMap<>(Resource.class);
-        for (Resource r : Resource.values()) {
-            totalDemand.put(r, 0);
-        }
-
-        // Track each player's individual demand to apply distribution after bank check
-        Map<Player, EnumMap<Resource, Integer>> perPlayerDemand = new HashMap<>();
-        for (Player p : players) {
-            EnumMap<Resource, Integer> d = new EnumMap<>(Resource.class);
-            for (Resource r : Resource.values()) d.put(r, 0);
-            perPlayerDemand.put(p, d);
-        }
-
-        for (Tile t : producingTiles) {
-            // Adding the robber factor to skip over it so no production happens when robber is implemented
-            if(t == board.getRobberTile()){
-                continue; // This will allow the robber to block production
-            }
-            Resource produced = Tile.getResource(t.getTerrain());
-            if (produced == null) continue; // desert or non-producing
-
-            for (Intersection inter : t.getIntersections()) {
-                Player owner = inter.getOwner();
-                if (owner == null) continue;
-
-                int amount = inter.isCity() ? 2 : 1;
-
-                // accumulate demand
-                perPlayerDemand.get(owner).put(produced, perPlayerDemand.get(owner).get(produced) + amount);
-                totalDemand.put(produced, totalDemand.get(produced) + amount);
-            }
+        // 1) Refresh the table if a building or the robber moved since it was built
+        if (tableVersion != board.getProductionVersion()) {
+            rebuildTable();
         }
 
-        // If nobody demands anything, return false
-        boolean anyDemand = false;
-        for (Resource r : Resource.values()) {
-            if (totalDemand.get(r) > 0) {
-                anyDemand = true;
-                break;
-            }
+        // 2) No producing tile, or nobody is on one
+        if (rollSum < 2 || rollSum > 12 || !rollProduces[rollSum]) {
+            return false;
         }
-        if (!anyDemand) return false;
 
-        // 3) Check bank can provide everything
-        if (!resources.canProvideAll(totalDemand)) {
+        // 3) Check bank can provide everything (avoid partial distribution)
+        if (!resources.canProvideAll(totalDemand, rollSum * RESOURCE_COUNT)) {
             return false;
         }
 
         // 4) Distribute (each call deducts from bank)
-        for (Map.Entry<Player, EnumMap<Resource, Integer>> e : perPlayerDemand.entrySet()) {
-            Player p = e.getKey();
-            EnumMap<Resource, Integer> d = e.getValue();
-            for (Resource r : Resource.values()) {
-                int amount = d.get(r);
+        for (Player p : players) {
+            int base = (rollSum * SEATS + p.getSeat()) * RESOURCE_COUNT;
+            for (int r = 0; r < RESOURCE_COUNT; r++) {
+                int amount = seatDemand[base + r];
                 if (amount > 0) {
                     // should always succeed because we checked canProvideAll
-                    resources.giveResources(amount, p, r);
+                    resources.giveResources(amount, p, RESOURCES[r]);
                 }
             }
         }
@@ -108,6 +87,39 @@ public class ResourceProduction {
         return true;
     }
 
+    /**
+     * Rebuilds the production table: for every roll, what each seat receives of each resource and the
+     * bank total, counting 1 per settlement and 2 per city on the unblocked tiles carrying that token
+     */
+    private void rebuildTable() {
+        Arrays.fill(seatDemand, 0);
+        Arrays.fill(totalDemand, 0);
+        Arrays.fill(rollProduces, false);
+        BoardTopology topology = board.getTopology();
+        int robberTile = board.getRobberTile() == null ? -1 : board.getRobberTile().getTileID();
+        for (int roll = 2; roll <= Math.min(12, topology.maxToken()); roll++) {
+            for (int k = 0; k < topology.tokenTileCount(roll); k++) {
+                int tile = topology.tokenTile(roll, k);
+                // Adding the robber factor to skip over it so no production happens when robber is implemented
+                if (tile == robberTile) continue;
+                Resource produced = Tile.getResource(topology.tileTerrain(tile));
+                if (produced == null) continue; // desert or non-producing
+
+                for (int corner = 0; corner < 6; corner++) {
+                    int node = topology.tileNode(tile, corner);
+                    int seat = board.ownerSeat(node);
+                    if (seat < 0) continue;
+
+                    int amount = board.isCityAt(node) ? 2 : 1;
+                    seatDemand[(roll * SEATS + seat) * RESOURCE_COUNT + produced.ordinal()] += amount;
+                    totalDemand[roll * RESOURCE_COUNT + produced.ordinal()] += amount;
+                    rollProduces[roll] = true;
+                }
+            }
+        }
+        tableVersion = board.getProductionVersion();
+    }
+
     /**
      * handleRobber is a method that gets implemented when rolling a 7 and takes as param
      * the list of the players, then deducts half of the cards out of the players that hold
@@ -129,24 +141,27 @@ public class ResourceProduction {
         }
 
         // 2. Move robber randomly
-        List<Tile> allTiles = board.getTiles();
-        Tile newTile = allTiles.get(new java.util.Random().nextInt(allTiles.size()));
+        Tile newTile = board.tileAt(random.nextInt(board.tileCount()));
         board.setRobberTile(newTile);
 
-        // 3. Determine eligible victims
-        List<Player> eligible = new ArrayList<>();
-
-        for (Intersection i : newTile.getIntersections()) {
-            Player owner = i.getOwner();
-            if (owner != null && !eligible.contains(owner)) {
-                eligible.add(owner);
+        // 3. Determine eligible victims (in the order they are met around the tile)
+        int eligibleCount = 0;
+        BoardTopology topology = board.getTopology();
+        for (int corner = 0; corner < 6; corner++) {
+            Player owner = board.intersectionAt(topology.tileNode(newTile.getTileID(), corner)).getOwner();
+            if (owner == null) continue;
+            boolean seen = false;
+            for (int k = 0; k < eligibleCount; k++) {
+                if (eligible[k] == owner) { seen = true; break; }
             }
+            if (!seen) eligible[eligibleCount++] = owner;
         }
 
-        if (eligible.isEmpty()) return;
+        if (eligibleCount == 0) return;
 
         // 4. Random victim
-        Player victim = eligible.get(new java.util.Random().nextInt(eligible.size()));
+        Player victim = eligible[random.nextInt(eligibleCount)];
+        Arrays.fill(eligible, null);
 
         // 5. Random steal
         stealRandomCard(players.get(0), victim);
@@ -154,26 +169,15 @@ public class ResourceProduction {
 
     /**
      * discardRandomCard is a method used to discard half rounded down the number of cards randomly
+     * Each card is drawn straight from the hand counts, every card in the hand being equally likely
      * @param p the player that will be deducted cards
      * @param amount the amount of cards that should be discarded from the player p
      */
     private void discardRandomCards(Player p, int amount) {
-
-        // Creating a pool of resources that the player has
-        List<Resource> pool = new ArrayList<>();
-
-        // Adding the resources existant to the pool of resources for that player
-        for (Resource r : Resource.values()) {
-            for (int i = 0; i < p.getResourceCount(r); i++) {
-                pool.add(r);
-            }
-        }
-        // Shuffling the resources so they are all mixed instead of having them listed one after the other
-        java.util.Collections.shuffle(pool);
-
-        // Spending the resources set by the amount passed as param
-        for (int i = 0; i < amount && i < pool.size(); i++) {
-            resources.spendResources(1, p, pool.get(i));
+        for (int i = 0; i < amount; i++) {
+            Resource card = drawRandomCard(p);
+            if (card == null) return;
+            resources.spendResources(1, p, card);
         }
     }
 
@@ -184,28 +188,28 @@ public class ResourceProduction {
      * @param victim Player that will have to give up one of his random cards
      */
     private void stealRandomCard(Player thief, Player victim) {
+        Resource stolen = drawRandomCard(victim);
 
-        //Creating a list of resources from the victim cards
-        List<Resource> victimCards = new ArrayList<>();
-
-        // Adding the resources to the victimCards
-        for (Resource r : Resource.values()) {
-            for (int i = 0; i < victim.getResourceCount(r); i++) {
-                victimCards.add(r);
-            }
-        }
-
-        // Checking that the list has resources for the victim player
-        if (victimCards.isEmpty()) return;
-
-        // Shuffling the victim cards so they all well mixed before picking one of them
-        java.util.Collections.shuffle(victimCards);
-
-        // Picking the first card as the random card that will be stolen
-        Resource stolen = victimCards.get(0);
+        // Checking that the victim has resources
+        if (stolen == null) return;
 
         // Disptaching the card from the victim to the thief
         resources.spendResources(1, victim, stolen);
         resources.giveResources(1, thief, stolen);
     }
+
+    /**
+     * Picks one card of the hand uniformly at random, weighting each resource by how many the player holds
+     * @return the resource of the drawn card, or null if the hand is empty
+     */
+    private Resource drawRandomCard(Player p) {
+        int total = p.totalResourceCards();
+        if (total <= 0) return null;
+        int pick = random.nextInt(total);
+        for (Resource r : RESOURCES) {
+            pick -= p.getResourceCount(r);
+            if (pick < 0) return r;
+        }
+        return null;
+    }
 }
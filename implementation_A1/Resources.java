@@ -9,10 +9,12 @@ import java.util.Map;
 
 public class Resources {
     /**
-     * Declaring the Map as type Map and then specifying the actual type as Enummap,
-     * as this is an implementation of the SOLID principles to lean more on abstraction.
+     * Bank counts indexed by Resource.ordinal(), a primitive array so that giving and spending
+     * (the inner loop of production, robber discards and every build) never boxes an Integer.
      */
-    private Map<Resource, Integer> resourceCounts = new EnumMap<>(Resource.class);
+    private final int[] resourceCounts = new int[Resource.values().length];
+    // Zobrist keys of the bank counts (see StateHash), kept in step with every card given or spent
+    private long bankHash;
 
     /**
      * Constructor of resources copies the resource count from the given map.
@@ -20,7 +22,7 @@ public class Resources {
      */
     public Resources(Map<Resource, Integer> initial) {
         for (Resource r : Resource.values()) {
-            resourceCounts.put(r, initial.get(r));
+            setCount(r.ordinal(), initial.get(r));
         }
     }
 
@@ -48,12 +50,12 @@ public class Resources {
         //Checking if the amount taken is valid (positive)
         if (numTaken <= 0) return false;
         // Checking if the amount desired to be taken is available to be taken or not
-        int available = resourceCounts.get(resource);
+        int available = resourceCounts[resource.ordinal()];
         if (available < numTaken) {
             return false;
         }
         //Adding the resource to the player
-        resourceCounts.put(resource, available - numTaken);
+        setCount(resource.ordinal(), available - numTaken);
         playerColor.addResource(resource, numTaken);
         return true;
     }
@@ -73,7 +75,7 @@ public class Resources {
         }
         //Removing the resource from the player collection
         playerID.removeResource(resource, numSpent);
-        resourceCounts.put(resource, resourceCounts.get(resource) + numSpent);
+        setCount(resource.ordinal(), resourceCounts[resource.ordinal()] + numSpent);
         return true;
     }
 
@@ -86,10 +88,64 @@ public class Resources {
         for (Map.Entry<Resource, Integer> e : demand.entrySet()) {
             Resource r = e.getKey();
             int needed = e.getValue();
-            if (resourceCounts.getOrDefault(r, 0) < needed) {
+            if (resourceCounts[r.ordinal()] < needed) {
                 return false;
             }
         }
         return true;
     }
-}
\ No newline at end of file
+
+    /**
+     * Same check as canProvideAll(Map) for a demand vector indexed by Resource.ordinal()
+     * @param demand requested amount of each resource, indexed by ordinal
+     * @return true if bank can provide ALL demanded resources
+     */
+    public boolean canProvideAll(int[] demand) {
+        return canProvideAll(demand, 0);
+    }
+
+    /**
+     * Same check for a demand vector stored at an offset of a larger table (one row per dice roll)
+     * @param demand table holding the demand vector
+     * @param offset index of the WOOL entry of the vector
+     * @return true if bank can provide ALL demanded resources
+     */
+    public boolean canProvideAll(int[] demand, int offset) {
+        for (int r = 0; r < resourceCounts.length; r++) {
+            if (resourceCounts[r] < demand[offset + r]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return how many cards of the given resource are left in the bank
+     */
+    public int getResourceCount(Resource resource) {
+        return resourceCounts[resource.ordinal()];
+    }
+
+    // Copies the bank counts (indexed by Resource.ordinal()) into out, starting at offset
+    void saveCounts(int[] out, int offset) {
+        System.arraycopy(resourceCounts, 0, out, offset, resourceCounts.length);
+    }
+
+    // Replaces the bank counts with the ones stored in in, starting at offset
+    void loadCounts(int[] in, int offset) {
+        for (int r = 0; r < resourceCounts.length; r++) {
+            setCount(r, in[offset + r]);
+        }
+    }
+
+    // Changes one bank count and swaps its key in the bank hash
+    private void setCount(int r, int count) {
+        bankHash ^= StateHash.bankKey(r, resourceCounts[r]) ^ StateHash.bankKey(r, count);
+        resourceCounts[r] = count;
+    }
+
+    // Getter method to return the hash of the bank counts, the bank's part of the game state hash
+    long getBankHash() {
+        return bankHash;
+    }
+}
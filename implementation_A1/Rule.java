@@ -14,6 +14,25 @@ public interface Rule {
      */
     Command createCommand(Player player, Board board, Resources resources);
 
+    /**
+     * Scores the rule and picks its move in one pass over the shared turn analysis.
+     * The default adapts rules written against evaluate/createCommand: the command is created only if chosen.
+     * @return the score and the move of the rule
+     */
+    default RuleDecision decide(TurnAnalysis turn) {
+        double value = evaluate(turn.getPlayer(), turn.getBoard(), turn.getResources());
+        return RuleDecision.deferred(value, this, turn);
+    }
+
+    /**
+     * Highest score evaluate() can ever return, used by the agent to skip rules that can't win.
+     * Defaults to no bound, so a rule that doesn't declare one is always evaluated.
+     * @return upper bound of the score
+     */
+    default double upperBound() {
+        return Double.POSITIVE_INFINITY;
+    }
+
     /**
      * @return the name of the rule
      */
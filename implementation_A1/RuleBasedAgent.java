@@ -4,28 +4,85 @@ import java.util.Random;
 
 /**
  * Uses the Iterator pattern to chose actions, picks the rule with the highest value
+ *
+ * An agent reuses buffers between decisions and is not thread-safe: use one agent per thread (only the
+ * DecisionCache it is given may be shared between threads).
  */
-public class RuleBasedAgent {
+public class RuleBasedAgent implements Agent {
 
     private RuleCollection ruleCollection;
     private Random random;
+    private boolean verbose;
+    // Reused between decisions, holds the rules tied for the best score
+    private final List<RuleIterator.RuleEvaluation> bestEvaluations = new ArrayList<>();
+    // Decisions already made in the same position, null to always decide from scratch
+    private DecisionCache cache;
+    // Stop at the first rule whose upper bound can't reach the best score; off only to check the bounds (tests)
+    private boolean pruning = true;
+    // Reused between decisions, the tied moves and rule names handed to the cache
+    private int[] tiedMoves = new int[8];
+    private String[] tiedNames = new String[8];
 
     public RuleBasedAgent(Random random) {
+        this(random, true);
+    }
+
+    /**
+     * @param random the randomizer used to break ties between rules
+     * @param verbose if false, the selected rule is not printed (headless batch runs)
+     */
+    public RuleBasedAgent(Random random, boolean verbose) {
         this.ruleCollection = new RuleCollection();
         this.random = random;
+        this.verbose = verbose;
+    }
+
+    /**
+     * Makes the agent look its decisions up in (and add them to) the cache. The games played are the same as
+     * without it: a cached decision keeps the tied moves and the tie is still broken with this agent's Random.
+     * @param cache the cache, possibly shared with other agents on the same map; null to stop caching
+     */
+    public void setDecisionCache(DecisionCache cache) {
+        this.cache = cache;
+    }
+
+    // Turns the upper-bound short-circuit on (default) or off; off, every rule is evaluated on every decision
+    void setPruning(boolean enabled) {
+        this.pruning = enabled;
     }
 
     /**
-     * Chooses the best action by iterating through all rules
+     * Chooses the best action by iterating through the rules in descending upper-bound order.
+     * Stops as soon as the next rule can't beat or tie the best score, and only creates the
+     * Command of the chosen rule.
      */
+    @Override
     public Command selectAction(Player player, Board board, Resources resources) {
-        RuleIterator iterator = ruleCollection.createIterator(player, board, resources);
+        // The rules only read the pieces on the board and the player's own hand
+        long stateHash = 0L;
+        if (cache != null) {
+            stateHash = board.getPieceHash() ^ player.getHandHash();
+            DecisionCache.Entry cached = cache.get(stateHash, player.getSeat());
+            if (cached != null) return replay(cached, player, board, resources);
+        }
+
+        // One analysis per decision, every rule reads the facts it needs from it
+        TurnAnalysis turn = new TurnAnalysis(player, board, resources);
+        RuleIterator iterator = ruleCollection.createIterator(turn);
 
         double maxValue = -1.0;
-        List<RuleIterator.RuleEvaluation> bestEvaluations = new ArrayList<>();
+        bestEvaluations.clear();
 
-        // Iterate through all rules using the Iterator pattern
+        // Iterate through the rules using the Iterator pattern
         while (iterator.hasNext()) {
+            // No remaining rule can reach the best score (a 0.0 best can't be tied, ties need a positive score)
+            if (pruning) {
+                double bound = iterator.peekUpperBound();
+                if (bound < maxValue || (maxValue == 0.0 && bound <= 0.0)) {
+                    break;
+                }
+            }
+
             RuleIterator.RuleEvaluation eval = iterator.next();
 
             if (eval.value > maxValue) {
@@ -39,18 +96,52 @@ public class RuleBasedAgent {
             }
         }
 
+        if (cache != null) store(stateHash, player.getSeat(), maxValue);
+
         // No valid rules found
         if (bestEvaluations.isEmpty() || maxValue == 0.0) {
+            bestEvaluations.clear();
             return null;
         }
 
         // Picks randomly if there's a tie
         RuleIterator.RuleEvaluation chosen =
                 bestEvaluations.get(random.nextInt(bestEvaluations.size()));
+        bestEvaluations.clear();
 
-        System.out.println("AI selected rule: " + chosen.ruleName +
-                " (value: " + chosen.value + ")");
+        if (verbose) {
+            System.out.println("AI selected rule: " + chosen.ruleName +
+                    " (value: " + chosen.value + ")");
+        }
+
+        return chosen.createCommand();
+    }
 
-        return chosen.command;
+    // Plays a cached decision the way selectAction plays a fresh one: same tie break, same output
+    private Command replay(DecisionCache.Entry cached, Player player, Board board, Resources resources) {
+        if (cached.size() == 0) return null;
+        int k = random.nextInt(cached.size());
+        if (verbose) {
+            System.out.println("AI selected rule: " + cached.ruleNameAt(k) +
+                    " (value: " + cached.value + ")");
+        }
+        return RuleDecision.of(cached.value, cached.moveAt(k), new TurnAnalysis(player, board, resources))
+                .createCommand();
+    }
+
+    // Adds the decision just made to the cache, unless a tied rule has no move to remember (evaluate adapter)
+    private void store(long stateHash, int seat, double maxValue) {
+        int count = maxValue == 0.0 ? 0 : bestEvaluations.size();
+        if (count > tiedMoves.length) {
+            tiedMoves = new int[count];
+            tiedNames = new String[count];
+        }
+        for (int k = 0; k < count; k++) {
+            RuleIterator.RuleEvaluation eval = bestEvaluations.get(k);
+            if (eval.decision.isDeferred()) return;
+            tiedMoves[k] = eval.decision.getMove();
+            tiedNames[k] = eval.ruleName;
+        }
+        cache.put(stateHash, seat, maxValue, tiedMoves, tiedNames, count);
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,6 @@
 /**
- * Holds all rules and creates iterators, constraints first, then value rules
+ * Holds all rules and creates iterators, constraints first, then value rules.
+ * The rules are kept in descending order of their upper bound so the agent can stop early.
  */
 public class RuleCollection {
 
@@ -18,6 +19,8 @@ public class RuleCollection {
                 new BuildSomethingRule(),    // 0.8 - Build without earning VP
                 new SpendToFiveRule()        // 0.5 - Reduce hand to <5 cards
         };
+        // stable sort: rules with the same bound keep their priority order
+        java.util.Arrays.sort(rules, (a, b) -> Double.compare(b.upperBound(), a.upperBound()));
     }
 
     /**
@@ -27,6 +30,13 @@ public class RuleCollection {
         return new RuleIterator(rules, player, board, resources);
     }
 
+    /**
+     * Creates an iterator over the rules sharing the given turn analysis.
+     */
+    public RuleIterator createIterator(TurnAnalysis turn) {
+        return new RuleIterator(rules, turn);
+    }
+
     /**
      * Returns the number of rules
      */
@@ -0,0 +1,82 @@
+/**
+ * RuleDecision is what a rule returns from one pass over the TurnAnalysis: its score and the move it would
+ * play (a MoveGenerator encoded int). The Command is only built when the agent picks the rule.
+ *
+ * Rules still written against evaluate/createCommand are wrapped by deferred(): the score comes from
+ * evaluate and the command from createCommand, on the same state.
+ */
+public final class RuleDecision {
+
+    public static final int NO_MOVE = -1;
+
+    // Score 0 and nothing to play, shared by every rule that doesn't fire
+    public static final RuleDecision NONE = new RuleDecision(0.0, NO_MOVE, null, null);
+
+    private final double score;
+    private final int move;
+    private final TurnAnalysis analysis;
+    private final Rule deferredRule;
+
+    private RuleDecision(double score, int move, TurnAnalysis analysis, Rule deferredRule) {
+        this.score = score;
+        this.move = move;
+        this.analysis = analysis;
+        this.deferredRule = deferredRule;
+    }
+
+    /**
+     * @param score the rule's score
+     * @param move the move to play if the rule is chosen, NO_MOVE if it has none
+     * @param analysis the state the move was found on
+     */
+    public static RuleDecision of(double score, int move, TurnAnalysis analysis) {
+        return new RuleDecision(score, move, analysis, null);
+    }
+
+    // Adapter for rules that only implement evaluate/createCommand
+    static RuleDecision deferred(double score, Rule rule, TurnAnalysis analysis) {
+        return new RuleDecision(score, NO_MOVE, analysis, rule);
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public int getMove() {
+        return move;
+    }
+
+    // True for the evaluate/createCommand adapter, whose command is not a move (so it can't be cached)
+    boolean isDeferred() {
+        return deferredRule != null;
+    }
+
+    /**
+     * Builds the Command playing the decided move
+     * @return the command, or null if the rule has nothing to play
+     */
+    public Command createCommand() {
+        if (deferredRule != null) {
+            return deferredRule.createCommand(analysis.getPlayer(), analysis.getBoard(), analysis.getResources());
+        }
+        if (move == NO_MOVE) return null;
+
+        Board board = analysis.getBoard();
+        Resources resources = analysis.getResources();
+        Player player = analysis.getPlayer();
+        int id = MoveGenerator.idOf(move);
+        switch (MoveGenerator.typeOf(move)) {
+            case MoveGenerator.CITY:
+                return new BuildCity(id, board, resources, player);
+            case MoveGenerator.SETTLEMENT:
+                return new BuildSettlement(id, board, resources, player);
+            default:
+                Edge edge = board.edgeAt(id);
+                return new BuildRoad(
+                        edge.getIntersection1().getNodeID(),
+                        edge.getIntersection2().getNodeID(),
+                        board, resources, player
+                );
+        }
+    }
+}
@@ -6,15 +6,16 @@ public class RuleIterator {
     private Rule[] rules;
     private int position = 0;
 
-    private Player player;
-    private Board board;
-    private Resources resources;
+    // What every rule asks about the board this turn, computed once and shared
+    private TurnAnalysis turn;
 
     public RuleIterator(Rule[] rules, Player player, Board board, Resources resources) {
+        this(rules, new TurnAnalysis(player, board, resources));
+    }
+
+    public RuleIterator(Rule[] rules, TurnAnalysis turn) {
         this.rules = rules;
-        this.player = player;
-        this.board = board;
-        this.resources = resources;
+        this.turn = turn;
     }
 
     /**
@@ -34,11 +35,18 @@ public class RuleIterator {
 
         Rule currentRule = rules[position++];
 
-        // Evaluate the rule and create its command
-        double value = currentRule.evaluate(player, board, resources);
-        Command command = currentRule.createCommand(player, board, resources);
+        // Score the rule and pick its move, its command is only created if the rule gets chosen
+        return new RuleEvaluation(currentRule.getName(), currentRule.decide(turn));
+    }
 
-        return new RuleEvaluation(currentRule.getName(), value, command);
+    /**
+     * @return the upper bound of the next rule's score (rules are in descending upper-bound order)
+     */
+    public double peekUpperBound() {
+        if (!hasNext()) {
+            throw new java.util.NoSuchElementException();
+        }
+        return rules[position].upperBound();
     }
 
     /**
@@ -49,17 +57,24 @@ public class RuleIterator {
     }
 
     /**
-     * A rule's evaluation result
+     * A rule's evaluation result, the command is created on demand
      */
     public static class RuleEvaluation {
         public final String ruleName;
         public final double value;
-        public final Command command;
+        public final RuleDecision decision;
 
-        public RuleEvaluation(String ruleName, double value, Command command) {
+        public RuleEvaluation(String ruleName, RuleDecision decision) {
             this.ruleName = ruleName;
-            this.value = value;
-            this.command = command;
+            this.value = decision.getScore();
+            this.decision = decision;
+        }
+
+        /**
+         * Creates the Command of the evaluated rule for the same state it was evaluated on
+         */
+        public Command createCommand() {
+            return decision.createCommand();
         }
     }
-}
\ No newline at end of file
+}
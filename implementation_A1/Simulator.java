@@ -1,28 +1,78 @@
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
+import java.util.HashMap;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Random;
 
 /**
  * Simulator / main class is the class that is responsible for implementing a single simulation of the game
  * and alternates the turns as per the config class until max round reached and throws exceptions if failed
  * to alternate turns.
+ *
+ * The config file may also select the headless batch mode:
+ *   turns: 25
+ *   mode: headless
+ *   games: 1000
+ *   seed: 42
+ *   threads: 8
+ * which plays the games without pauses or per-turn output and prints one summary line per game.
+ * The games are spread over "threads" workers (default: one per core) and game i is seeded from the
+ * master seed and i only, so the output is the same for any number of threads.
  */
 public class Simulator {
 
     public static void main(String[] args) {
         // Read configuration file
         int maxRounds = 25; // default if config not provided
+        boolean headless = false;
+        int games = 1;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = 42L; // deterministic demo runs for debugging/testing
         if (args.length >= 1) {
-            Integer parsed = Simulator.readTurnsFromConfig(args[0]);
+            // the file is read once, every setting is looked up in the same map
+            Map<String, String> config = readConfig(args[0]);
+            Integer parsed = readTurnsFromConfig(config);
             if (parsed != null) {
                 maxRounds = parsed;
             }
+            headless = "headless".equalsIgnoreCase(config.get("mode"));
+            Integer parsedGames = readGamesFromConfig(config);
+            if (parsedGames != null) {
+                games = parsedGames;
+            }
+            Long parsedSeed = readSeedFromConfig(config);
+            if (parsedSeed != null) {
+                seed = parsedSeed;
+            }
+            Integer parsedThreads = readThreadsFromConfig(config);
+            if (parsedThreads != null) {
+                threads = parsedThreads;
+            }
         }
 
-        // Create game components
-        long seed = 42L; // deterministic demo runs for debugging/testing
+        if (!headless) {
+            // Run the simulation
+            createGame(seed, maxRounds, false).start();
+            return;
+        }
+
+        // Headless batch: N games over the worker pool, one summary line per game in game order
+        GameResult[] results = new ParallelGameRunner(threads, maxRounds).run(seed, games);
+        for (GameResult result : results) {
+            System.out.println(result.toSummaryLine());
+        }
+    }
+
+    /**
+     * Creates the game components (board, bank, dice, production) for one game seeded with the given seed
+     * @param seed the seed of the randomizer shared by the dice and the game
+     * @param maxRounds the maximum number of rounds of the game
+     * @param headless if true, the game runs without pauses, console output or JSON export
+     * @return the game ready to be started
+     */
+    public static Game createGame(long seed, int maxRounds, boolean headless) {
         Random randomizer = new Random(seed);
 
         Board board = new Board(); // creates a valid map (tiles + nodes + edges)
@@ -37,32 +87,93 @@ public class Simulator {
         twoDice.addDice(d1);
         twoDice.addDice(d2);
 
-        ResourceProduction production = new ResourceProduction(twoDice, bank, board);
-
-        Game game = new Game(board, bank, production, maxRounds, randomizer);
+        ResourceProduction production = new ResourceProduction(twoDice, bank, board, randomizer);
 
-        // Run the simulation
-        game.start();
+        return new Game(board, bank, production, maxRounds, randomizer, headless);
     }
 
     public static Integer readTurnsFromConfig(String path) {
+        return readTurnsFromConfig(readConfig(path));
+    }
+
+    // Reads "turns: N", the maximum number of rounds of a game
+    public static Integer readTurnsFromConfig(Map<String, String> config) {
+        String rhs = config.get("turns");
+        if (rhs == null) return null;
+        try {
+            int value = Integer.parseInt(rhs);
+            if (value < 1 || value > 8192) {
+                throw new IllegalArgumentException("turns must be in [1..8192]. Found: " + value);
+            }
+            return value;
+        } catch (NumberFormatException ex) {
+            System.out.println("Config read failed (using default rounds). Reason: " + ex.getMessage());
+        }
+        return null;
+    }
+
+    // Reads "games: N", the number of games played back to back in headless mode
+    public static Integer readGamesFromConfig(Map<String, String> config) {
+        String rhs = config.get("games");
+        if (rhs == null) return null;
+        try {
+            int value = Integer.parseInt(rhs);
+            if (value < 1) {
+                throw new IllegalArgumentException("games must be at least 1. Found: " + value);
+            }
+            return value;
+        } catch (NumberFormatException ex) {
+            System.out.println("Config read failed (using default games). Reason: " + ex.getMessage());
+        }
+        return null;
+    }
+
+    // Reads "seed: S", the master seed every per-game seed is derived from
+    public static Long readSeedFromConfig(Map<String, String> config) {
+        String rhs = config.get("seed");
+        if (rhs == null) return null;
+        try {
+            return Long.parseLong(rhs);
+        } catch (NumberFormatException ex) {
+            System.out.println("Config read failed (using default seed). Reason: " + ex.getMessage());
+        }
+        return null;
+    }
+
+    // Reads "threads: N", the number of worker threads of the headless batch
+    public static Integer readThreadsFromConfig(Map<String, String> config) {
+        String rhs = config.get("threads");
+        if (rhs == null) return null;
+        try {
+            int value = Integer.parseInt(rhs);
+            if (value < 1) {
+                throw new IllegalArgumentException("threads must be at least 1. Found: " + value);
+            }
+            return value;
+        } catch (NumberFormatException ex) {
+            System.out.println("Config read failed (using one thread per core). Reason: " + ex.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Reads every "key: value" line of the config file in one pass (keys are lower-cased, the first line of a
+     * key wins)
+     * @return the trimmed values by key, empty if the file can't be read
+     */
+    static Map<String, String> readConfig(String path) {
+        Map<String, String> config = new HashMap<>();
         try (BufferedReader br = new BufferedReader(new FileReader(path))) {
             String line;
             while ((line = br.readLine()) != null) {
-                line = line.trim();
-                // allow "turns: 123" (case-insensitive on key)
-                if (line.toLowerCase(Locale.ROOT).startsWith("turns:")) {
-                    String rhs = line.substring("turns:".length()).trim();
-                    int value = Integer.parseInt(rhs);
-                    if (value < 1 || value > 8192) {
-                        throw new IllegalArgumentException("turns must be in [1..8192]. Found: " + value);
-                    }
-                    return value;
-                }
+                int colon = line.indexOf(':');
+                if (colon < 0) continue;
+                String key = line.substring(0, colon).trim().toLowerCase(Locale.ROOT);
+                config.putIfAbsent(key, line.substring(colon + 1).trim());
             }
-        } catch (IOException | NumberFormatException ex) {
-            System.out.println("Config read failed (using default rounds). Reason: " + ex.getMessage());
+        } catch (IOException ex) {
+            System.out.println("Config read failed (using defaults). Reason: " + ex.getMessage());
         }
-        return null;
+        return config;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,100 @@
+/**
+ * StateHash defines the 64-bit Zobrist hash of a game state: node ownership and city flags, edge ownership,
+ * the robber tile, every hand, the bank and the seat to play. The hash is the XOR of one key per fact, so
+ * each change only XORs out the old key and XORs in the new one:
+ *  - Board keeps the keys of its pieces and robber (updated by the Intersection/Edge setters and setRobberTile)
+ *  - Player keeps the keys of its hand, Resources the keys of the bank (updated on every card moved)
+ *  - Game adds the key of the current seat (see Game.getStateHash)
+ *
+ * Keys are derived from what they describe with a fixed mixing function rather than drawn from a random table,
+ * so they don't depend on the board size and stay the same from one run (or engine version) to the next.
+ * Absent facts have key 0: a free node, a free edge, a count of 0 and no robber add nothing.
+ *
+ * compute() rebuilds the hash from scratch from the object model, to check the incremental value.
+ */
+final class StateHash {
+
+    private static final int NODE = 1;
+    private static final int EDGE = 2;
+    private static final int ROBBER = 3;
+    private static final int HAND = 4;
+    private static final int BANK = 5;
+    private static final int SEAT = 6;
+
+    // Resource.values() clones its array on every call, and handKey runs on every card moved
+    private static final int RESOURCE_COUNT = Resource.values().length;
+
+    private StateHash() {}
+
+    // Key of a settlement (or city) of the seat on the node, 0 for a free node
+    static long nodeKey(int node, int seat, boolean city) {
+        return seat < 0 ? 0L : key(NODE, node, seat * 2 + (city ? 1 : 0));
+    }
+
+    // Key of a road of the seat on the edge, 0 for a free edge
+    static long edgeKey(int edge, int seat) {
+        return seat < 0 ? 0L : key(EDGE, edge, seat);
+    }
+
+    // Key of the robber on the tile, 0 if it is on no tile
+    static long robberKey(int tile) {
+        return tile < 0 ? 0L : key(ROBBER, tile, 0);
+    }
+
+    // Key of the seat holding count cards of the resource
+    static long handKey(int seat, int resource, int count) {
+        return count == 0 ? 0L : key(HAND, seat * RESOURCE_COUNT + resource, count);
+    }
+
+    // Key of the bank holding count cards of the resource
+    static long bankKey(int resource, int count) {
+        return count == 0 ? 0L : key(BANK, resource, count);
+    }
+
+    // Key of the seat to play
+    static long seatKey(int seat) {
+        return key(SEAT, seat, 0);
+    }
+
+    /**
+     * Full recomputation from the intersections, edges, robber, hands and bank (debug checks and tests)
+     * @return the hash the incremental updates must agree with
+     */
+    static long compute(Game game) {
+        Board board = game.getBoard();
+        long hash = 0L;
+        for (Intersection i : board.getIntersections()) {
+            if (i.getOwner() != null) hash ^= nodeKey(i.getNodeID(), i.getOwner().getSeat(), i.isCity());
+        }
+        for (Edge e : board.getEdges()) {
+            if (e.getOwner() != null) hash ^= edgeKey(e.getEdgeID(), e.getOwner().getSeat());
+        }
+        Tile robber = board.getRobberTile();
+        if (robber != null) hash ^= robberKey(robber.getTileID());
+        for (Player p : game.getPlayers()) {
+            for (Resource r : Resource.values()) {
+                hash ^= handKey(p.getSeat(), r.ordinal(), p.getResourceCount(r));
+            }
+        }
+        for (Resource r : Resource.values()) {
+            hash ^= bankKey(r.ordinal(), game.getResources().getResourceCount(r));
+        }
+        return hash ^ seatKey(game.getCurrentPlayer().getSeat());
+    }
+
+    // Largest value a key can carry: the value takes the low 24 bits of the input, the index the 32 above it
+    static final int MAX_VALUE = (1 << 24) - 1;
+
+    // Distinct (kind, index, value) triples give distinct inputs as long as index and value fit their bits instead
+    // of spilling into the fields above them; the SplitMix64 finalizer spreads them. Counts are kept in range where
+    // they change (Player.setCount refuses a negative one), so hashing only asserts it and never stops a game
+    private static long key(int kind, int index, int value) {
+        assert index >= 0 && value >= 0 && value <= MAX_VALUE
+                : "hash key out of range: index " + index + ", value " + value
+                + " (index must be >= 0, value in [0.." + MAX_VALUE + "])";
+        long z = ((long) kind << 56 | (long) index << 24 | value) * 0x9E3779B97F4A7C15L + 0x632BE59BD9B4E019L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
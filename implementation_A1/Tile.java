@@ -23,6 +23,13 @@ public final class Tile {
      * @param intersections the intersections that will border each tile
      */
     Tile(int tileID, Terrain terrain, int token, List<Intersection> intersections) {
+        this(tileID, terrain, token, intersections, 0, 0);
+    }
+
+    /**
+     * Same as above with the axial coordinates (q, r) of the tile on the map, s is derived as -q - r
+     */
+    Tile(int tileID, Terrain terrain, int token, List<Intersection> intersections, int q, int r) {
         this.tileID = tileID;
         this.terrain = terrain;
         this.token = token;
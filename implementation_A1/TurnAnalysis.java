@@ -0,0 +1,156 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * TurnAnalysis is the shared view of one AI decision: the deciding player, the board and the bank, plus what
+ * every rule asks about them (what the player can afford, the first buildable road, the first road joining two
+ * of its road ends, the first open settlement spot, the first settlement it can upgrade, the players on the
+ * board and their longest roads).
+ *
+ * It is created once per RuleBasedAgent.selectAction call and handed to every rule. Each fact is computed the
+ * first time a rule asks for it and remembered for the rest of the turn, so a rule that stops early never pays
+ * for the facts it doesn't need. Locations are node or edge ids, -1 when there is none.
+ */
+public final class TurnAnalysis {
+
+    // Marks a location that has not been looked up yet this turn
+    private static final int UNKNOWN = -2;
+
+    private final Player player;
+    private final Board board;
+    private final Resources resources;
+
+    private int totalCards = UNKNOWN;
+    // affordability bits, computed together the first time one is asked
+    private boolean affordabilityKnown;
+    private boolean canAffordRoad;
+    private boolean canAffordSettlement;
+    private boolean canAffordCity;
+
+    private int roadEdge = UNKNOWN;
+    private int connectingEdge = UNKNOWN;
+    private int settlementSpot = UNKNOWN;
+    private int upgradableSettlement = UNKNOWN;
+
+    private List<Player> playersOnBoard;
+    private int[] longestRoads;
+
+    public TurnAnalysis(Player player, Board board, Resources resources) {
+        this.player = player;
+        this.board = board;
+        this.resources = resources;
+    }
+
+    // Getter method to return the deciding player
+    public Player getPlayer() {
+        return player;
+    }
+
+    // Getter method to return the board
+    public Board getBoard() {
+        return board;
+    }
+
+    // Getter method to return the bank
+    public Resources getResources() {
+        return resources;
+    }
+
+    // Getter method to return the number of cards in the player's hand
+    public int getTotalCards() {
+        if (totalCards == UNKNOWN) totalCards = player.totalResourceCards();
+        return totalCards;
+    }
+
+    public boolean canAffordRoad() {
+        computeAffordability();
+        return canAffordRoad;
+    }
+
+    public boolean canAffordSettlement() {
+        computeAffordability();
+        return canAffordSettlement;
+    }
+
+    public boolean canAffordCity() {
+        computeAffordability();
+        return canAffordCity;
+    }
+
+    private void computeAffordability() {
+        if (affordabilityKnown) return;
+        canAffordRoad = player.getResourceCount(Resource.BRICK) >= 1
+                && player.getResourceCount(Resource.LUMBER) >= 1;
+        canAffordSettlement = canAffordRoad
+                && player.getResourceCount(Resource.WOOL) >= 1
+                && player.getResourceCount(Resource.GRAIN) >= 1;
+        canAffordCity = player.getResourceCount(Resource.ORE) >= 3
+                && player.getResourceCount(Resource.GRAIN) >= 2;
+        affordabilityKnown = true;
+    }
+
+    /**
+     * @return the lowest free edge connected to the player's roads or buildings, -1 if none
+     */
+    public int getRoadEdge() {
+        if (roadEdge == UNKNOWN) roadEdge = board.getMoves().firstRoad(player);
+        return roadEdge;
+    }
+
+    /**
+     * @return the lowest free edge with both ends on the player's roads, -1 if none
+     */
+    public int getConnectingEdge() {
+        if (connectingEdge == UNKNOWN) connectingEdge = board.getMoves().firstConnectingRoad(player);
+        return connectingEdge;
+    }
+
+    /**
+     * @return the lowest open settlement spot reached by the player's roads, -1 if none
+     */
+    public int getSettlementSpot() {
+        if (settlementSpot == UNKNOWN) settlementSpot = board.getMoves().firstSettlementSpot(player);
+        return settlementSpot;
+    }
+
+    /**
+     * @return the lowest node holding one of the player's settlements, -1 if none
+     */
+    public int getUpgradableSettlement() {
+        if (upgradableSettlement == UNKNOWN) upgradableSettlement = board.getMoves().firstCityUpgrade(player);
+        return upgradableSettlement;
+    }
+
+    /**
+     * @return the players owning at least one settlement or city, in seat order
+     */
+    public List<Player> getPlayersOnBoard() {
+        if (playersOnBoard == null) {
+            Player[] bySeat = new Player[BoardBitboards.SEATS];
+            for (int k = 0; k < board.intersectionCount(); k++) {
+                Player owner = board.intersectionAt(k).getOwner();
+                if (owner != null) bySeat[owner.getSeat()] = owner;
+            }
+            List<Player> players = new ArrayList<>();
+            for (Player p : bySeat) {
+                if (p != null) players.add(p);
+            }
+            playersOnBoard = players;
+        }
+        return playersOnBoard;
+    }
+
+    /**
+     * @return the length of the player's longest road, asked from the board once per turn
+     */
+    public int getLongestRoad(Player p) {
+        if (longestRoads == null) {
+            longestRoads = new int[BoardBitboards.SEATS];
+            Arrays.fill(longestRoads, UNKNOWN);
+        }
+        int seat = p.getSeat();
+        if (longestRoads[seat] == UNKNOWN) longestRoads[seat] = board.getLongestRoad(p);
+        return longestRoads[seat];
+    }
+}
@@ -0,0 +1,70 @@
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * BenchmarkStates builds the fixed, seeded game states the engine benchmarks run against.
+ * The same seeds are used on every run so the numbers are comparable release to release.
+ *
+ *  - early: the board right after the initial placements (round 0)
+ *  - mid:   the board after MID_ROUNDS rounds of a headless game
+ *  - late:  the board after LATE_ROUNDS rounds of a headless game
+ */
+final class BenchmarkStates {
+
+    static final long SEED = 20240501L;
+    static final int MID_ROUNDS = 25;
+    static final int LATE_ROUNDS = 100;
+
+    private BenchmarkStates() {}
+
+    /**
+     * Plays a headless game with the fixed seed for the given number of rounds
+     * @param rounds the number of rounds to play (0 stops right after the initial placements)
+     * @return the game in the state reached after those rounds
+     */
+    static Game playedGame(int rounds) {
+        Game game = Simulator.createGame(SEED, Math.max(rounds, 1), true);
+        if (rounds > 0) {
+            game.start();
+        }
+        return game;
+    }
+
+    static Game early() {
+        return playedGame(0);
+    }
+
+    static Game mid() {
+        return playedGame(MID_ROUNDS);
+    }
+
+    static Game late() {
+        return playedGame(LATE_ROUNDS);
+    }
+
+    /**
+     * A bank so large that the production benchmarks never run it dry
+     */
+    static Resources unlimitedBank() {
+        Map<Resource, Integer> init = new EnumMap<>(Resource.class);
+        for (Resource r : Resource.values()) {
+            init.put(r, Integer.MAX_VALUE / 2);
+        }
+        return new Resources(init);
+    }
+
+    /**
+     * Sets the player's hand to 2 BRICK, 2 LUMBER, 1 WOOL, 1 GRAIN (6 cards): it affords a road and a
+     * settlement but stays under the MustSpend limit, so every AI rule has to evaluate the board
+     */
+    static void dealHand(Player p, Resources bank) {
+        for (Resource r : Resource.values()) {
+            int held = p.getResourceCount(r);
+            if (held > 0) bank.spendResources(held, p, r);
+        }
+        bank.giveResources(2, p, Resource.BRICK);
+        bank.giveResources(2, p, Resource.LUMBER);
+        bank.giveResources(1, p, Resource.WOOL);
+        bank.giveResources(1, p, Resource.GRAIN);
+    }
+}
@@ -0,0 +1,473 @@
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * EngineBenchmarks measures the engine hot paths: production per roll value, the AI decision on early,
+ * mid and late boards, settlement and road building, map generation, board creation, a full round of play,
+ * game snapshots and state hashing, search make/unmake and one MCTS decision.
+ * The scale.* benchmarks repeat board creation and move generation on growing radii (19 to 1027 tiles) so
+ * their cost per tile can be compared.
+ *
+ * Every benchmark runs warmup iterations followed by measured iterations (JMH style) and reports the
+ * average time per operation, the bytes allocated per operation and the allocation rate. Allocation is
+ * read from the per-thread allocation counter of the JVM, the same counter JMH's GC profiler reports
+ * as gc.alloc.rate.norm.
+ *
+ * The engine classes live in the default package, which JMH does not accept for benchmark classes,
+ * so this harness is plain Java and is compiled together with the rest of the sources.
+ *
+ * Usage: java -cp build/classes EngineBenchmarks [name filter] [--csv]
+ */
+public final class EngineBenchmarks {
+
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASURED_ITERATIONS = 10;
+    private static final long ITERATION_NANOS = 200_000_000L; // 200 ms per iteration
+
+    /**
+     * One benchmark: setup() prepares a batch outside of the measurement, then run() is timed batchSize times
+     */
+    private abstract static class Benchmark {
+        final String name;
+        final int batchSize;
+
+        Benchmark(String name, int batchSize) {
+            this.name = name;
+            this.batchSize = batchSize;
+        }
+
+        void setup() {}
+
+        abstract Object run();
+    }
+
+    // Written by every benchmark so the JIT can't drop the measured work as dead code
+    private static Object sink;
+
+    public static void main(String[] args) {
+        String filter = "";
+        boolean csv = false;
+        for (String arg : args) {
+            if (arg.equals("--csv")) csv = true;
+            else filter = arg;
+        }
+
+        List<Benchmark> benchmarks = createBenchmarks();
+        if (csv) System.out.println("benchmark,ns_per_op,error_ns,bytes_per_op,alloc_mb_per_s");
+        else System.out.println(String.format(Locale.ROOT, "%-34s %12s %10s %12s %12s",
+                "Benchmark", "ns/op", "+-", "B/op", "MB/s"));
+
+        for (Benchmark b : benchmarks) {
+            if (!b.name.contains(filter)) continue;
+            double[] result = measure(b);
+            if (csv) {
+                System.out.println(String.format(Locale.ROOT, "%s,%.1f,%.1f,%.1f,%.1f",
+                        b.name, result[0], result[1], result[2], result[3]));
+            } else {
+                System.out.println(String.format(Locale.ROOT, "%-34s %12.1f %10.1f %12.1f %12.1f",
+                        b.name, result[0], result[1], result[2], result[3]));
+            }
+        }
+    }
+
+    /**
+     * Runs the warmup and measured iterations of one benchmark
+     * @return {mean ns/op, 99.9% error ns/op, bytes/op, MB/s}
+     */
+    private static double[] measure(Benchmark b) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            iteration(b);
+        }
+        double[] nsPerOp = new double[MEASURED_ITERATIONS];
+        long totalBytes = 0;
+        long totalOps = 0;
+        long totalNanos = 0;
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            long[] it = iteration(b);
+            nsPerOp[i] = (double) it[0] / it[2];
+            totalNanos += it[0];
+            totalBytes += it[1];
+            totalOps += it[2];
+        }
+
+        double mean = 0;
+        for (double v : nsPerOp) mean += v;
+        mean /= nsPerOp.length;
+        double variance = 0;
+        for (double v : nsPerOp) variance += (v - mean) * (v - mean);
+        variance /= (nsPerOp.length - 1);
+        // 3.25 ~ t(0.9995, 9), the same 99.9% confidence interval JMH prints for 10 iterations
+        double error = 3.25 * Math.sqrt(variance / nsPerOp.length);
+
+        double bytesPerOp = (double) totalBytes / totalOps;
+        double mbPerSec = totalBytes / (totalNanos / 1e9) / (1024.0 * 1024.0);
+        return new double[] {mean, error, bytesPerOp, mbPerSec};
+    }
+
+    /**
+     * Runs batches of the benchmark until the iteration time is used up
+     * @return {measured nanos, allocated bytes, operations}
+     */
+    private static long[] iteration(Benchmark b) {
+        long nanos = 0;
+        long bytes = 0;
+        long ops = 0;
+        while (nanos < ITERATION_NANOS) {
+            b.setup();
+            long bytesBefore = allocatedBytes();
+            long start = System.nanoTime();
+            for (int i = 0; i < b.batchSize; i++) {
+                sink = b.run();
+            }
+            nanos += System.nanoTime() - start;
+            bytes += allocatedBytes() - bytesBefore;
+            ops += b.batchSize;
+        }
+        return new long[] {nanos, bytes, ops};
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static List<Benchmark> createBenchmarks() {
+        List<Benchmark> list = new ArrayList<>();
+
+        // ResourceProduction.produce for each roll value, on the mid-game board with a bank that never runs dry
+        for (int roll = 2; roll <= 12; roll++) {
+            final int fixedRoll = roll;
+            list.add(new Benchmark("produce.roll" + roll, 1_000) {
+                Game game;
+                ResourceProduction production;
+
+                @Override
+                void setup() {
+                    if (game == null) {
+                        game = BenchmarkStates.mid();
+                        production = new ResourceProduction(() -> fixedRoll, BenchmarkStates.unlimitedBank(), game.getBoard(),
+                                new Random(BenchmarkStates.SEED));
+                    }
+                }
+
+                @Override
+                Object run() {
+                    return production.produce(game.getPlayers().get(0), game.getPlayers());
+                }
+            });
+        }
+
+        // RuleBasedAgent.selectAction on the three fixed boards, the deciding player holds a 6 card hand;
+        // the .cached variants answer from a DecisionCache (every call after the first is a hit)
+        String[] stages = {"early", "mid", "late"};
+        int[] stageRounds = {0, BenchmarkStates.MID_ROUNDS, BenchmarkStates.LATE_ROUNDS};
+        for (int v = 0; v < 2 * stages.length; v++) {
+            final int rounds = stageRounds[v % stages.length];
+            final boolean cached = v >= stages.length;
+            list.add(new Benchmark("selectAction." + stages[v % stages.length] + (cached ? ".cached" : ""), 1_000) {
+                Game game;
+                Player player;
+                RuleBasedAgent agent;
+
+                @Override
+                void setup() {
+                    if (game == null) {
+                        game = BenchmarkStates.playedGame(rounds);
+                        player = game.getPlayers().get(1);
+                        BenchmarkStates.dealHand(player, game.getResources());
+                        agent = new RuleBasedAgent(new Random(BenchmarkStates.SEED), false);
+                        if (cached) agent.setDecisionCache(new DecisionCache(1 << 10));
+                    }
+                }
+
+                @Override
+                Object run() {
+                    return agent.selectAction(player, game.getBoard(), game.getResources());
+                }
+            });
+        }
+
+        // Board.buildSettlement on a free spot of the early board, the settlement is removed after each build
+        // a fresh player per batch keeps the player's built-piece records from growing across batches
+        list.add(new Benchmark("board.buildSettlement", 1_000) {
+            Board board;
+            Player player;
+            Intersection target;
+
+            @Override
+            void setup() {
+                player = new Player(Color.ORANGE, 19);
+                if (board == null) {
+                    board = BenchmarkStates.early().getBoard();
+                    for (Intersection i : board.getIntersections()) {
+                        if (board.buildSettlement(player, i, true)) {
+                            i.setOwner(null);
+                            target = i;
+                            break;
+                        }
+                    }
+                }
+            }
+
+            @Override
+            Object run() {
+                boolean built = board.buildSettlement(player, target, true);
+                target.setOwner(null);
+                return built;
+            }
+        });
+
+        // Board.buildRoad next to a settlement of the early board, the road is removed after each build
+        // each batch hands that settlement to a fresh player so the built-piece records stay small
+        list.add(new Benchmark("board.buildRoad", 1_000) {
+            Board board;
+            Player player;
+            Intersection home;
+            Edge target;
+
+            @Override
+            void setup() {
+                player = new Player(Color.ORANGE, 19);
+                if (board == null) {
+                    board = BenchmarkStates.early().getBoard();
+                    for (Intersection i : board.getIntersections()) {
+                        if (i.getOwner() == null) continue;
+                        for (Edge e : i.getEdges()) {
+                            if (e.getOwner() == null && target == null) {
+                                home = i;
+                                target = e;
+                            }
+                        }
+                    }
+                }
+                home.setOwner(player);
+            }
+
+            @Override
+            Object run() {
+                boolean built = board.buildRoad(player, target);
+                target.setOwner(null);
+                return built;
+            }
+        });
+
+        // BoardConfig.buildMap, the whole 19 tile map from scratch
+        list.add(new Benchmark("boardConfig.buildMap", 100) {
+            @Override
+            Object run() {
+                List<Tile> tiles = new ArrayList<>();
+                List<Intersection> intersections = new ArrayList<>();
+                List<Edge> edges = new ArrayList<>();
+                BoardConfig.buildMap(tiles, intersections, edges);
+                return edges;
+            }
+        });
+
+        // new Board(): the per-game pieces created from the shared topology
+        list.add(new Benchmark("board.new", 100) {
+            @Override
+            Object run() {
+                return new Board();
+            }
+        });
+
+        // Game.playRound on a fresh headless game, 25 rounds per batch (the game setup is not measured)
+        // the games cycle through 16 fixed seeds so every run plays the same games
+        list.add(new Benchmark("game.playRound", 25) {
+            Game game;
+            int batch;
+
+            @Override
+            void setup() {
+                game = Simulator.createGame(BenchmarkStates.SEED + (batch++ % 16), 25, true);
+            }
+
+            @Override
+            Object run() {
+                game.playRound();
+                return game;
+            }
+        });
+
+        // Game.snapshot and Game.restore on a game played for 10 rounds; restore alternates between two states
+        // 5 rounds apart so every call has pieces, hands and the robber to put back
+        list.add(new Benchmark("game.snapshot", 1_000) {
+            Game game;
+
+            @Override
+            void setup() {
+                if (game != null) return;
+                game = Simulator.createGame(BenchmarkStates.SEED, 25, true);
+                for (int round = 0; round < 10; round++) game.playRound();
+            }
+
+            @Override
+            Object run() {
+                return game.snapshot();
+            }
+        });
+
+        list.add(new Benchmark("game.restore", 1_000) {
+            Game game;
+            GameSnapshot early;
+            GameSnapshot late;
+            int calls;
+
+            @Override
+            void setup() {
+                if (game != null) return;
+                game = Simulator.createGame(BenchmarkStates.SEED, 25, true);
+                for (int round = 0; round < 5; round++) game.playRound();
+                early = game.snapshot();
+                for (int round = 0; round < 5; round++) game.playRound();
+                late = game.snapshot();
+            }
+
+            @Override
+            Object run() {
+                game.restore((calls++ & 1) == 0 ? early : late);
+                return game;
+            }
+        });
+
+        // Reading the incrementally kept state hash, against recomputing it from the pieces, hands and bank
+        list.add(new Benchmark("game.stateHash", 1_000) {
+            Game game;
+            long hash;
+
+            @Override
+            void setup() {
+                if (game != null) return;
+                game = Simulator.createGame(BenchmarkStates.SEED, 25, true);
+                for (int round = 0; round < 10; round++) game.playRound();
+            }
+
+            @Override
+            Object run() {
+                hash ^= game.getStateHash();
+                return game;
+            }
+        });
+
+        list.add(new Benchmark("game.stateHash.recompute", 1_000) {
+            Game game;
+            long hash;
+
+            @Override
+            void setup() {
+                if (game != null) return;
+                game = Simulator.createGame(BenchmarkStates.SEED, 25, true);
+                for (int round = 0; round < 10; round++) game.playRound();
+            }
+
+            @Override
+            Object run() {
+                hash ^= StateHash.compute(game);
+                return game;
+            }
+        });
+
+        // MoveMaker.make then unmake of each legal move of the first player in turn, on a game after 10 rounds
+        // whose players were given enough cards to afford every move type
+        list.add(new Benchmark("moveMaker.makeUnmake", 1_000) {
+            MoveMaker maker;
+            Player player;
+            int[] moves;
+            int count;
+            int next;
+
+            @Override
+            void setup() {
+                if (maker != null) return;
+                Game game = Simulator.createGame(BenchmarkStates.SEED, 25, true);
+                for (int round = 0; round < 10; round++) game.playRound();
+                player = game.getPlayers().get(0);
+                for (Resource r : Resource.values()) {
+                    game.getResources().giveResources(Math.min(3, game.getResources().getResourceCount(r)), player, r);
+                }
+                maker = new MoveMaker(game);
+                Board board = game.getBoard();
+                moves = new int[2 * board.intersectionCount() + board.edgeCount()];
+                count = board.getMoves().generate(player, true, true, true, moves);
+            }
+
+            @Override
+            Object run() {
+                if (maker.make(player, moves[next])) maker.unmake();
+                next = next + 1 == count ? 0 : next + 1;
+                return maker;
+            }
+        });
+
+        // MctsAgent.selectAction for WHITE on a game after 10 rounds with cards to spend:
+        // 100 rollouts of 4 rounds on one thread, then the same with the rollouts sharing a DecisionCache
+        for (int v = 0; v < 2; v++) {
+            final boolean cached = v == 1;
+            list.add(new Benchmark("mcts.selectAction" + (cached ? ".cached" : ""), 1) {
+                Game game;
+                MctsAgent agent;
+                Player player;
+
+                @Override
+                void setup() {
+                    if (game != null) return;
+                    game = Simulator.createGame(BenchmarkStates.SEED, 25, true);
+                    for (int round = 0; round < 10; round++) game.playRound();
+                    player = game.getPlayers().get(Color.WHITE.ordinal());
+                    for (Resource r : Resource.values()) {
+                        game.getResources().giveResources(Math.min(2, game.getResources().getResourceCount(r)), player, r);
+                    }
+                    agent = new MctsAgent(game, 1L, 100, 0L, 1, 4);
+                    if (cached) agent.setRolloutCache(new DecisionCache(1 << 16));
+                }
+
+                @Override
+                Object run() {
+                    return agent.selectAction(player, game.getBoard(), game.getResources());
+                }
+            });
+        }
+
+        // Board creation and move generation per radius; cost should grow with the tile count, not its square
+        for (int radius : new int[] {2, 4, 8, 18}) {
+            final int r = radius;
+            list.add(new Benchmark("scale.r" + r + ".board.new", 10) {
+                @Override
+                Object run() {
+                    return new Board(r);
+                }
+            });
+
+            // one settlement and one road on every free spot met every 16 nodes, then all legal moves
+            list.add(new Benchmark("scale.r" + r + ".moves.generate", 1_000) {
+                Board board;
+                Player player;
+                int[] out;
+
+                @Override
+                void setup() {
+                    if (board != null) return;
+                    board = new Board(r);
+                    player = new Player(Color.ORANGE, 19);
+                    for (int n = 0; n < board.intersectionCount(); n += 16) {
+                        Intersection node = board.intersectionAt(n);
+                        if (board.buildSettlement(player, node, true)) {
+                            board.buildRoad(player, node.getEdges().get(0));
+                        }
+                    }
+                    out = new int[2 * board.intersectionCount() + board.edgeCount()];
+                }
+
+                @Override
+                Object run() {
+                    return board.getMoves().generate(player, true, true, true, out);
+                }
+            });
+        }
+
+        return list;
+    }
+}
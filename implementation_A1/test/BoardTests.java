@@ -152,4 +152,466 @@ public class BoardTests {
         result = board.buildCity(p1, node);
         assertFalse("buildCity on a city already so intersection must return false", result);
     }
+
+    // =================================================================
+    // GROUP 5: tests for the token index behind getTilesByToken()
+    //   P1: every tile is found under its own token exactly once
+    //   P2: tokens no tile carries (7, out of range) -> empty list
+    //   P3: the returned lists are read-only
+    // =================================================================
+
+    /**
+     * TEST: getTilesByToken serves every tile from the token index
+     */
+    @Test(timeout = TIMEOUT)
+    public void test21_tilesByToken_index() {
+        // P1: each tile appears once under its token, and the buckets cover all 19 tiles
+        int found = 0;
+        for (int token = 0; token <= 12; token++) {
+            for (Tile t : board.getTilesByToken(token)) {
+                assertEquals("tile listed under the wrong token", token, t.getToken());
+                found++;
+            }
+        }
+        assertEquals("the token index must cover all 19 tiles exactly once", 19, found);
+
+        // P2: 7 is the robber roll and has no tile, out of range tokens have none either
+        assertTrue("no tile carries token 7", board.getTilesByToken(7).isEmpty());
+        assertTrue("out of range token must return an empty list", board.getTilesByToken(99).isEmpty());
+        assertTrue("negative token must return an empty list", board.getTilesByToken(-1).isEmpty());
+
+        // P3: callers can't change the index
+        try {
+            board.getTilesByToken(6).clear();
+            fail("the token index lists must be unmodifiable");
+        } catch (UnsupportedOperationException expected) {
+            // expected
+        }
+    }
+
+    // =================================================================
+    // GROUP 6: tests for the direct lookups getIntersection() and getEdge()
+    //   P1: every node ID resolves to the intersection with that ID
+    //   P2: every edge resolves from its endpoints, in both orders
+    //   P3: unknown IDs or non-adjacent nodes -> null
+    // =================================================================
+
+    /**
+     * TEST: getIntersection and getEdge agree with the board lists
+     */
+    @Test(timeout = TIMEOUT)
+    public void test22_directLookups() {
+        // P1
+        for (Intersection i : board.getIntersections()) {
+            assertSame("lookup by node ID must return that intersection", i, board.getIntersection(i.getNodeID()));
+        }
+
+        // P2
+        for (Edge e : board.getEdges()) {
+            int a = e.getIntersection1().getNodeID();
+            int b = e.getIntersection2().getNodeID();
+            assertSame("lookup by (a, b) must return the edge", e, board.getEdge(a, b));
+            assertSame("lookup by (b, a) must return the same edge", e, board.getEdge(b, a));
+        }
+
+        // P3
+        assertNull("node 9999 does not exist", board.getIntersection(9999));
+        assertNull("negative node IDs do not exist", board.getIntersection(-1));
+        assertNull("no edge between nodes that don't exist", board.getEdge(999, 998));
+        assertNull("no edge from a node to itself", board.getEdge(0, 0));
+    }
+
+    // =================================================================
+    // GROUP 7: tests for the ownership bitboards behind the placement rules
+    //   P1: a build is seen by the distance rule, the road rule and the vpoints
+    //   P2: clearing the owner directly (as the undo() paths do) frees the spot again
+    // =================================================================
+
+    /**
+     * TEST: the bitboards follow builds and direct owner changes
+     */
+    @Test(timeout = TIMEOUT)
+    public void test23_bitboardsFollowOwnership() {
+        // debug mode: every vpoints read below is cross-checked against a full scan
+        board.setLedgerChecks(true);
+        Intersection node = board.getIntersection(0);
+        Intersection neighbour = node.getAdjacentIntersections().get(0);
+
+        // P1: settlement + city + road are all reflected
+        assertTrue(board.buildSettlement(p1, node, true));
+        assertFalse("settled spot is no longer free", board.isSettlementSpotFree(node));
+        assertFalse("distance rule blocks the neighbour", board.isSettlementSpotFree(neighbour));
+        assertEquals("one settlement is worth 1 VP", 1, board.getVictoryPoints(p1));
+        assertTrue(board.buildCity(p1, node));
+        assertEquals("a city is worth 2 VP", 2, board.getVictoryPoints(p1));
+        Edge edge = board.getEdge(node.getNodeID(), neighbour.getNodeID());
+        assertTrue(board.buildRoad(p1, edge));
+        assertTrue("p1's road touches the neighbour", board.hasRoadAt(p1, neighbour));
+        assertFalse("p2 has no road there", board.hasRoadAt(p2, neighbour));
+
+        // P2: undo-style direct setters clear the bits again
+        edge.setOwner(null);
+        node.setCity(false);
+        node.setOwner(null);
+        assertTrue("cleared spot is free again", board.isSettlementSpotFree(node));
+        assertTrue("neighbour is free again", board.isSettlementSpotFree(neighbour));
+        assertFalse("road was removed", board.hasRoadAt(p1, neighbour));
+        assertEquals("no buildings left", 0, board.getVictoryPoints(p1));
+        assertFalse("nobody reached 10 VP", board.hasPlayerReached(10));
+    }
+
+    /**
+     * TEST: longest road is the longest trail, not the road count, and an opponent settlement cuts it
+     * P1: a 5-road path plus a 1-road branch has a longest road of 5
+     * P2: an opponent settlement in the middle of the path splits it into 2 and 3 (+ branch)
+     * P3: undoing the settlement and the last road updates the cached length
+     */
+    @Test(timeout = TIMEOUT)
+    public void test24_longestRoad_trail() {
+        // walk a simple path of 6 nodes from node 0
+        List<Intersection> path = new ArrayList<>();
+        path.add(board.getIntersection(0));
+        while (path.size() < 6) {
+            Intersection last = path.get(path.size() - 1);
+            for (Intersection next : last.getAdjacentIntersections()) {
+                if (!path.contains(next)) {
+                    path.add(next);
+                    break;
+                }
+            }
+        }
+        List<Edge> roads = new ArrayList<>();
+        for (int k = 1; k < path.size(); k++) {
+            Edge e = board.getEdge(path.get(k - 1).getNodeID(), path.get(k).getNodeID());
+            e.setOwner(p1);
+            roads.add(e);
+        }
+        Intersection middle = path.get(2);
+        for (Intersection side : middle.getAdjacentIntersections()) {
+            if (!path.contains(side)) {
+                board.getEdge(middle.getNodeID(), side.getNodeID()).setOwner(p1);
+                break;
+            }
+        }
+
+        // P1
+        assertEquals("the branch does not extend the path", 5, board.getLongestRoad(p1));
+        assertEquals("p2 has no roads", 0, board.getLongestRoad(p2));
+
+        // P2
+        middle.setOwner(p2);
+        assertEquals("settlement cuts the trail", 3, board.getLongestRoad(p1));
+
+        // P3
+        middle.setOwner(null);
+        assertEquals("trail is whole again", 5, board.getLongestRoad(p1));
+        roads.get(roads.size() - 1).setOwner(null);
+        assertEquals("one road shorter", 4, board.getLongestRoad(p1));
+    }
+
+    /**
+     * TEST: the incremental move sets always match a full scan of the board
+     * random builds and removals (undo-style setters) for two players, checked after every change
+     */
+    @Test(timeout = TIMEOUT)
+    public void test25_moveGenerator_matchesScan() {
+        Random random = new Random(13);
+        int[] moves = new int[2 * board.intersectionCount() + board.edgeCount()];
+        Player[] players = {p1, p2};
+        for (int step = 0; step < 300; step++) {
+            Player p = players[random.nextInt(2)];
+            if (random.nextBoolean()) {
+                Intersection i = board.intersectionAt(random.nextInt(board.intersectionCount()));
+                i.setCity(false);
+                i.setOwner(random.nextInt(3) == 0 ? null : p);
+                if (i.getOwner() != null && random.nextBoolean()) i.setCity(true);
+            } else {
+                Edge e = board.edgeAt(random.nextInt(board.edgeCount()));
+                e.setOwner(random.nextInt(3) == 0 ? null : p);
+            }
+
+            for (Player q : players) {
+                List<Integer> expected = new ArrayList<>();
+                for (int k = 0; k < board.intersectionCount(); k++) {
+                    Intersection i = board.intersectionAt(k);
+                    if (q.equals(i.getOwner()) && !i.isCity()) expected.add(MoveGenerator.encode(MoveGenerator.CITY, k));
+                }
+                for (int k = 0; k < board.intersectionCount(); k++) {
+                    Intersection i = board.intersectionAt(k);
+                    if (board.isSettlementSpotFree(i) && board.hasRoadAt(q, i)) expected.add(MoveGenerator.encode(MoveGenerator.SETTLEMENT, k));
+                }
+                for (int k = 0; k < board.edgeCount(); k++) {
+                    Edge e = board.edgeAt(k);
+                    if (e.getOwner() == null && board.isEdgeConnectedToPlayer(q, e)) expected.add(MoveGenerator.encode(MoveGenerator.ROAD, k));
+                }
+
+                int count = board.getMoves().generate(q, true, true, true, moves);
+                List<Integer> actual = new ArrayList<>();
+                for (int k = 0; k < count; k++) actual.add(moves[k]);
+                assertEquals("moves after step " + step, expected, actual);
+            }
+        }
+    }
+
+    /**
+     * TEST: boards built from the shared topology are wired exactly like a map built by BoardConfig
+     * P1: same tiles (terrain, token, corners), same edges per node and same tiles per node, in the same order
+     * P2: two boards share the topology but never their pieces (owning a node on one leaves the other free)
+     */
+    @Test(timeout = TIMEOUT)
+    public void test26_sharedTopology_matchesConfig() {
+        List<Tile> tiles = new ArrayList<>();
+        List<Intersection> intersections = new ArrayList<>();
+        List<Edge> edges = new ArrayList<>();
+        BoardConfig.buildMap(tiles, intersections, edges);
+
+        // P1
+        for (int t = 0; t < tiles.size(); t++) {
+            Tile expected = tiles.get(t);
+            Tile actual = board.tileAt(t);
+            assertEquals(expected.getTerrain(), actual.getTerrain());
+            assertEquals(expected.getToken(), actual.getToken());
+            for (int c = 0; c < 6; c++) {
+                assertEquals(expected.getIntersections().get(c).getNodeID(), actual.getIntersections().get(c).getNodeID());
+            }
+        }
+        for (int n = 0; n < intersections.size(); n++) {
+            Intersection expected = intersections.get(n);
+            Intersection actual = board.intersectionAt(n);
+            assertEquals(expected.getEdges().size(), actual.getEdges().size());
+            for (int k = 0; k < expected.getEdges().size(); k++) {
+                assertEquals(expected.getEdges().get(k).getEdgeID(), actual.getEdges().get(k).getEdgeID());
+            }
+            assertEquals(expected.getTiles().size(), actual.getTiles().size());
+            for (int k = 0; k < expected.getTiles().size(); k++) {
+                assertEquals(expected.getTiles().get(k).getTileID(), actual.getTiles().get(k).getTileID());
+            }
+        }
+
+        // P2
+        Board other = new Board();
+        assertTrue(board.buildSettlement(p1, board.getIntersection(0), true));
+        assertNull("other board's node is still free", other.getIntersection(0).getOwner());
+        assertTrue(other.isSettlementSpotFree(other.getIntersection(0)));
+    }
+
+    /**
+     * TEST: the compressed adjacency rows agree with the object graph
+     * P1: node -> neighbors/edges/tiles rows match getAdjacentIntersections/getEdges/getTiles, in order
+     * P2: the neighbor list is cached and read-only
+     */
+    @Test(timeout = TIMEOUT)
+    public void test27_adjacencyRows_matchObjects() {
+        BoardTopology topology = board.getTopology();
+
+        // P1
+        for (int n = 0; n < board.intersectionCount(); n++) {
+            Intersection node = board.intersectionAt(n);
+            List<Intersection> neighbours = node.getAdjacentIntersections();
+            assertEquals(neighbours.size(), topology.nodeEdgeEnd(n) - topology.nodeEdgeStart(n));
+            for (int k = topology.nodeEdgeStart(n); k < topology.nodeEdgeEnd(n); k++) {
+                int at = k - topology.nodeEdgeStart(n);
+                assertEquals(neighbours.get(at).getNodeID(), topology.nodeNeighbor(k));
+                assertEquals(node.getEdges().get(at).getEdgeID(), topology.nodeEdge(k));
+            }
+            for (int k = topology.nodeTileStart(n); k < topology.nodeTileEnd(n); k++) {
+                assertEquals(node.getTiles().get(k - topology.nodeTileStart(n)).getTileID(), topology.nodeTile(k));
+            }
+        }
+
+        // P2
+        Intersection node = board.getIntersection(0);
+        assertSame("neighbors are cached", node.getAdjacentIntersections(), node.getAdjacentIntersections());
+        try {
+            node.getAdjacentIntersections().clear();
+            fail("neighbor list must be read-only");
+        } catch (UnsupportedOperationException expected) {
+            // expected
+        }
+    }
+
+    /**
+     * TEST: boards of other radii for scale testing
+     * P1: 3r(r+1)+1 tiles, 6(r+1)^2 intersections and 9r^2+15r+6 edges, every node on 2 or 3 edges and 1 to 3 tiles
+     * P2: a desert holds the robber and the tokens stay in 2..12
+     * P3: radius 2 is the standard board, and a radius outside [1..MAX_RADIUS] is rejected
+     * P4: placement, move generation and longest road work far from the center of a large board
+     */
+    @Test(timeout = TIMEOUT)
+    public void test28_radius_scalesMap() {
+        // P1 + P2
+        for (int r = 1; r <= 6; r++) {
+            Board big = new Board(r);
+            assertEquals("tiles, radius " + r, 3 * r * (r + 1) + 1, big.tileCount());
+            assertEquals("intersections, radius " + r, 6 * (r + 1) * (r + 1), big.intersectionCount());
+            assertEquals("edges, radius " + r, 9 * r * r + 15 * r + 6, big.edgeCount());
+            for (int n = 0; n < big.intersectionCount(); n++) {
+                Intersection node = big.intersectionAt(n);
+                assertTrue(node.getEdges().size() == 2 || node.getEdges().size() == 3);
+                assertTrue(node.getTiles().size() >= 1 && node.getTiles().size() <= 3);
+            }
+            assertNotNull("robber starts on a desert", big.getRobberTile());
+            assertEquals(Terrain.DESERT, big.getRobberTile().getTerrain());
+            for (int t = 0; t < big.tileCount(); t++) {
+                Tile tile = big.tileAt(t);
+                if (tile.getTerrain() == Terrain.DESERT) assertEquals(0, tile.getToken());
+                else assertTrue(tile.getToken() >= 2 && tile.getToken() <= 12 && tile.getToken() != 7);
+            }
+        }
+
+        // P3
+        assertSame(board.getTopology(), new Board(BoardConfig.STANDARD_RADIUS).getTopology());
+        assertSame("one topology per radius", new Board(4).getTopology(), new Board(4).getTopology());
+        try {
+            new Board(0);
+            fail("radius 0 must be rejected");
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+
+        // P4: the last node and two roads out of it, on a radius 10 board
+        Board big = new Board(10);
+        Intersection far = big.intersectionAt(big.intersectionCount() - 1);
+        assertTrue(big.buildSettlement(p1, far, true));
+        Intersection next = far.getAdjacentIntersections().get(0);
+        assertTrue(big.buildRoad(p1, big.getEdge(far.getNodeID(), next.getNodeID())));
+        Intersection last = null;
+        for (Intersection n : next.getAdjacentIntersections()) {
+            if (n != far) { last = n; break; }
+        }
+        assertTrue(big.buildRoad(p1, big.getEdge(next.getNodeID(), last.getNodeID())));
+        assertEquals(2, big.getLongestRoad(p1));
+        assertEquals(far.getNodeID(), big.getMoves().firstCityUpgrade(p1));
+        assertEquals(last.getNodeID(), big.getMoves().firstSettlementSpot(p1));
+    }
+
+    /**
+     * TEST: a building only marks the longest road dirty when a road touches its node
+     * P1: a settlement on a node no road touches leaves every seat's cached length as it is
+     * P2: a city upgrade (same owner) on the trail leaves it as it is too
+     * P3: a settlement of another seat on the trail marks the trail dirty and the next query cuts it
+     */
+    @Test(timeout = TIMEOUT)
+    public void test40_longestRoad_skipsUntouchedNodes() {
+        BoardTopology topology = board.getTopology();
+        LongestRoad longest = new LongestRoad(topology);
+        int seat1 = p1.getSeat();
+        int seat2 = p2.getSeat();
+
+        // a 2-road trail 0 - a - b from node 0
+        int a = topology.nodeNeighbor(topology.nodeEdgeStart(0));
+        int b = -1;
+        for (int k = topology.nodeEdgeStart(a); k < topology.nodeEdgeEnd(a); k++) {
+            if (topology.nodeNeighbor(k) != 0) { b = topology.nodeNeighbor(k); break; }
+        }
+        longest.edgeChanged(topology.edgeBetween(0, a), -1, seat1);
+        longest.edgeChanged(topology.edgeBetween(a, b), -1, seat1);
+        assertEquals(2, longest.longestRoad(seat1));
+
+        // P1: the last node is far from the trail
+        int far = topology.getNodeCount() - 1;
+        longest.nodeChanged(far, seat2, false);
+        assertFalse("no road at the node", longest.isStale(seat1));
+        assertFalse("no road at the node", longest.isStale(seat2));
+
+        // P2: p1's settlement at the start of the trail, then its upgrade
+        longest.nodeChanged(0, seat1, true);
+        assertEquals(2, longest.longestRoad(seat1));
+        longest.nodeChanged(0, seat1, true);
+        assertFalse("same owner", longest.isStale(seat1));
+
+        // P3
+        longest.nodeChanged(a, seat2, true);
+        assertTrue("the settlement stands on the trail", longest.isStale(seat1));
+        assertEquals("settlement cuts the trail", 1, longest.longestRoad(seat1));
+        assertFalse(longest.isStale(seat1));
+    }
+
+    /**
+     * HELPER: longest path of the player's roads from the node, away from the edge it came through, ending at
+     * (not passing) the blocked node; on roads without loops this is the longest trail from the node
+     */
+    private int longestPathFrom(Board b, Player p, int node, int fromEdge, int blocked) {
+        BoardTopology topology = b.getTopology();
+        int best = 0;
+        for (int k = topology.nodeEdgeStart(node); k < topology.nodeEdgeEnd(node); k++) {
+            int f = topology.nodeEdge(k);
+            if (f == fromEdge || b.edgeAt(f).getOwner() != p) continue;
+            int next = topology.nodeNeighbor(k);
+            best = Math.max(best, 1 + (next == blocked ? 0 : longestPathFrom(b, p, next, f, blocked)));
+        }
+        return best;
+    }
+
+    /**
+     * TEST: longest road on a long, branching road network of a radius 12 board
+     *          P1: a spine of 100+ roads that never touches itself, with a road off every other spine node:
+     *              the longest road is the longest path of that tree, from any of its nodes
+     *          P2: another player's settlement in the middle of the spine cuts it (the path may end there)
+     *          P3: both queries, on a board of 1000+ nodes, run within the test timeout
+     */
+    @Test(timeout = TIMEOUT)
+    public void test49_longestRoad_largeBranchingNetwork() {
+        Board big = new Board(12);
+        BoardTopology topology = big.getTopology();
+        boolean[] onNetwork = new boolean[topology.getNodeCount()];
+
+        // the spine: walk to the last free neighbour that touches no other node of the spine, until there is none
+        List<Integer> spine = new ArrayList<>();
+        int node = 0;
+        onNetwork[node] = true;
+        spine.add(node);
+        while (true) {
+            int next = -1;
+            for (int k = topology.nodeEdgeStart(node); k < topology.nodeEdgeEnd(node); k++) {
+                int n = topology.nodeNeighbor(k);
+                if (onNetwork[n]) continue;
+                boolean touches = false;
+                for (int j = topology.nodeEdgeStart(n); j < topology.nodeEdgeEnd(n); j++) {
+                    int m = topology.nodeNeighbor(j);
+                    if (m != node && onNetwork[m]) touches = true;
+                }
+                if (!touches) next = n;
+            }
+            if (next < 0) break;
+            big.edgeAt(topology.edgeBetween(node, next)).setOwner(p1);
+            onNetwork[next] = true;
+            spine.add(next);
+            node = next;
+        }
+        assertTrue("a long spine, got " + (spine.size() - 1), spine.size() > 100);
+
+        // a branch off every other spine node
+        int branches = 0;
+        for (int s = 1; s < spine.size() - 1; s += 2) {
+            int at = spine.get(s);
+            for (int k = topology.nodeEdgeStart(at); k < topology.nodeEdgeEnd(at); k++) {
+                int n = topology.nodeNeighbor(k);
+                if (onNetwork[n]) continue;
+                big.edgeAt(topology.nodeEdge(k)).setOwner(p1);
+                onNetwork[n] = true;
+                branches++;
+                break;
+            }
+        }
+        assertTrue("branches on the spine", branches > 10);
+
+        // P1
+        int expected = 0;
+        for (int n = 0; n < onNetwork.length; n++) {
+            if (onNetwork[n]) expected = Math.max(expected, longestPathFrom(big, p1, n, -1, -1));
+        }
+        assertTrue(expected >= spine.size() - 1);
+        assertEquals(expected, big.getLongestRoad(p1));
+
+        // P2
+        int cut = spine.get(spine.size() / 2);
+        big.intersectionAt(cut).setOwner(p2);
+        int expectedCut = 0;
+        for (int n = 0; n < onNetwork.length; n++) {
+            if (onNetwork[n] && n != cut) expectedCut = Math.max(expectedCut, longestPathFrom(big, p1, n, -1, cut));
+        }
+        assertTrue("the settlement cuts the spine", expectedCut < expected);
+        assertEquals(expectedCut, big.getLongestRoad(p1));
+    }
 }
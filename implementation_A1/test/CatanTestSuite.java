@@ -7,14 +7,21 @@ import org.junit.runners.Suite;
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
         //run in the order below
-        PlayerTests.class,             //file1: test 1-4
+        PlayerTests.class,             //file1: test 1-4, 50
         ResourcesTests.class,          //file2: test 5-8
         DiceTests.class,               //file3: test 9-11
         TileTests.class,               //file4: test 12-14
-        BoardTests.class,              //file5: test 15-18
-        ResourceProductionTests.class, //file6: test 19-20
-        CommandParserTest.class,       //file7: test
-        UndoRedoTests.class,      //file8: test
+        BoardTests.class,              //file5: test 15-18, 21-28, 40, 49
+        ResourceProductionTests.class, //file6: test 19-20, 51-52
+        CommandParserTest.class,       //file7: test 1-5 (numbered on its own)
+        UndoRedoTests.class,           //file8: test 1-37 (numbered on its own)
+        GameSnapshotTests.class,       //file9: test 29-31
+        MoveMakerTests.class,          //file10: test 32-33
+        MctsAgentTests.class,          //file11: test 34-35
+        StateHashTests.class,          //file12: test 36-37, 44
+        DecisionCacheTests.class,      //file13: test 38-39
+        SimulatorTests.class,          //file14: test 41-43
+        RuleBasedAgentTests.class,     //file15: test 45-48
 })
 public class CatanTestSuite {}
 
@@ -0,0 +1,89 @@
+import org.junit.*;
+import static org.junit.Assert.*;
+
+//=========================
+// DecisionCacheTests.java
+// Tests for DecisionCache, the transposition table of RuleBasedAgent decisions
+// a cache may only make decisions faster: the games played with it must be the games played without it
+//=========================
+
+public class DecisionCacheTests {
+
+    private static final int TIMEOUT = 2000;
+
+    /**
+     * HELPER: a headless game after the given number of rounds, its rule agent using the cache (null: none)
+     */
+    private GameSnapshot play(long seed, int rounds, DecisionCache cache) {
+        Game game = Simulator.createGame(seed, 25, true);
+        game.setDecisionCache(cache);
+        for (int round = 0; round < rounds; round++) game.playRound();
+        return game.snapshot();
+    }
+
+    /**
+     * TEST: the cache doesn't change the games
+     *          P1: a game with a cache, then the same game again from a warm cache -> the uncached game, with hits
+     *          P2: batches sharing one cache over 4 threads -> the results of the uncached batch
+     */
+    @Test(timeout = TIMEOUT)
+    public void test38_decisionCache_sameGames() {
+        // P1
+        DecisionCache cache = new DecisionCache(1 << 12);
+        GameSnapshot plain = play(21L, 12, null);
+        assertEquals(plain, play(21L, 12, cache));
+        long missesFirstGame = cache.getMisses();
+        assertTrue("decisions were looked up", missesFirstGame > 0);
+        assertEquals(plain, play(21L, 12, cache));
+        assertTrue("the replayed game is answered from the cache", cache.getHits() > 0);
+
+        // P2
+        GameResult[] expected = new ParallelGameRunner(1, 25).run(9L, 12);
+        DecisionCache shared = new DecisionCache(1 << 12);
+        for (int run = 0; run < 2; run++) {
+            GameResult[] results = new ParallelGameRunner(4, 25, shared).run(9L, 12);
+            for (int i = 0; i < expected.length; i++) {
+                assertEquals("run " + run + " game " + i, expected[i].toSummaryLine(), results[i].toSummaryLine());
+            }
+        }
+        assertTrue(shared.getHits() > 0);
+    }
+
+    /**
+     * TEST: the cache is bounded and counts its lookups
+     *          P1: the capacity is rounded up to a power of two, out of range capacities are refused
+     *          P2: a full slot is replaced by a new decision (an eviction), the old one is then a miss
+     *          P3: hits and misses add up to the lookups
+     */
+    @Test(timeout = TIMEOUT)
+    public void test39_decisionCache_boundedAndCounted() {
+        // P1
+        assertEquals(8, new DecisionCache(5).getCapacity());
+        assertEquals(1, new DecisionCache(1).getCapacity());
+        try {
+            new DecisionCache(0);
+            fail("a cache needs a slot");
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+
+        // P2
+        DecisionCache cache = new DecisionCache(1);
+        int[] moves = {MoveGenerator.encode(MoveGenerator.ROAD, 3)};
+        String[] names = {"BuildSomething"};
+        cache.put(11L, 1, 0.8, moves, names, 1);
+        cache.put(11L, 1, 0.8, moves, names, 1);
+        assertEquals("the same decision again is no eviction", 0, cache.getEvictions());
+        cache.put(12L, 1, 0.0, moves, names, 0);
+        assertEquals(1, cache.getEvictions());
+        assertNull(cache.get(11L, 1));
+        DecisionCache.Entry entry = cache.get(12L, 1);
+        assertNotNull(entry);
+        assertEquals(0, entry.size());
+        assertNull("another seat in the same state", cache.get(12L, 2));
+
+        // P3
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+    }
+}
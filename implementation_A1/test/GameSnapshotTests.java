@@ -0,0 +1,109 @@
+import org.junit.*;
+import static org.junit.Assert.*;
+
+//=========================
+// GameSnapshotTests.java
+// Tests for Game.snapshot() and Game.restore()
+// a snapshot holds the ownership, hands, bank, robber, round, current seat and build records of a game,
+// restore() must put all of them back and leave the board's derived state (VP ledger, legal moves,
+// longest roads) as if the game had never moved on
+//=========================
+
+public class GameSnapshotTests {
+
+    private static final int TIMEOUT = 2000;
+    private Game game;
+
+    @Before
+    public void setUp() {
+        game = Simulator.createGame(7L, 25, true);
+        game.getBoard().setLedgerChecks(true); // every VP read is checked against a full scan
+    }
+
+    /**
+     * HELPER: the legal moves of every player (all types), concatenated, to compare the move sets of two states
+     */
+    private String legalMoves(Game g) {
+        Board board = g.getBoard();
+        int[] out = new int[2 * board.intersectionCount() + board.edgeCount()];
+        StringBuilder all = new StringBuilder();
+        for (Player p : g.getPlayers()) {
+            int count = board.getMoves().generate(p, true, true, true, out);
+            for (int k = 0; k < count; k++) all.append(out[k]).append(',');
+            all.append(board.getVictoryPoints(p)).append('/').append(board.getLongestRoad(p)).append(';');
+        }
+        return all.toString();
+    }
+
+    /**
+     * TEST: restoring a snapshot on the same game undoes everything played since
+     *          P1: the state read back right after restore equals the snapshot
+     *          P2: VP ledger, legal moves and longest roads are the ones of the snapshot state
+     */
+    @Test(timeout = TIMEOUT)
+    public void test29_restore_sameGame() {
+        game.playRound();
+        GameSnapshot saved = game.snapshot();
+        String movesBefore = legalMoves(game);
+
+        for (int round = 0; round < 8; round++) game.playRound();
+        assertNotEquals("the game moved on", saved, game.snapshot());
+
+        game.restore(saved);
+
+        // P1
+        assertEquals(saved, game.snapshot());
+        assertEquals(saved.getRound(), game.getCurrentRound());
+        assertEquals(saved.getCurrentSeat(), game.getCurrentPlayer().getSeat());
+        for (Resource r : Resource.values()) {
+            assertEquals(saved.getBankCount(r), game.getResources().getResourceCount(r));
+        }
+
+        // P2
+        assertEquals(movesBefore, legalMoves(game));
+    }
+
+    /**
+     * TEST: a snapshot restored on another game over the same map clones the state
+     *          P1: both games report the same state and the same derived board data
+     *          P2: the clone keeps its own pieces (playing on it leaves the original untouched)
+     */
+    @Test(timeout = TIMEOUT)
+    public void test30_restore_otherGame() {
+        for (int round = 0; round < 6; round++) game.playRound();
+        GameSnapshot saved = game.snapshot();
+
+        Game clone = Simulator.createGame(99L, 25, true);
+        clone.restore(saved);
+
+        // P1
+        assertEquals(saved, clone.snapshot());
+        assertEquals(legalMoves(game), legalMoves(clone));
+        for (Player p : clone.getPlayers()) {
+            assertEquals(saved.getResourceCount(p.getSeat(), Resource.ORE), p.getResourceCount(Resource.ORE));
+        }
+
+        // P2
+        clone.playRound();
+        clone.playRound();
+        assertEquals(saved, game.snapshot());
+    }
+
+    /**
+     * TEST: the snapshot is compact and the current seat follows the turns
+     *          P1: a few hundred bytes on the standard map
+     *          P2: after one turn the next seat is current, the rest of the round completes it
+     */
+    @Test(timeout = TIMEOUT)
+    public void test31_snapshot_compactAndTurns() {
+        // P1
+        assertTrue("snapshot too large: " + game.snapshot().sizeInBytes(), game.snapshot().sizeInBytes() < 512);
+
+        // P2
+        assertEquals(0, game.getCurrentPlayer().getSeat());
+        game.playNextTurn();
+        assertEquals(1, game.snapshot().getCurrentSeat());
+        game.playRound();
+        assertEquals("playRound finishes the round in progress", 0, game.getCurrentPlayer().getSeat());
+    }
+}
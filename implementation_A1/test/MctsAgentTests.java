@@ -0,0 +1,71 @@
+import org.junit.*;
+import static org.junit.Assert.*;
+
+//=========================
+// MctsAgentTests.java
+// Tests for MctsAgent, the search agent that plugs into Game.setAgent
+// the searches use small iteration budgets and short rollouts so each test stays fast
+//=========================
+
+public class MctsAgentTests {
+
+    private static final int TIMEOUT = 2000;
+
+    /**
+     * HELPER: a headless game where WHITE is played by an MCTS agent, after the given number of rounds
+     */
+    private GameSnapshot playWithMcts(long agentSeed, int threads, int rounds) {
+        Game game = Simulator.createGame(3L, 25, true);
+        try (MctsAgent agent = new MctsAgent(game, agentSeed, 24, 0L, threads, 2)) {
+            game.setAgent(Color.WHITE, agent);
+            for (int round = 0; round < rounds; round++) game.playRound();
+        }
+        return game.snapshot();
+    }
+
+    /**
+     * TEST: seeded searches are reproducible
+     *          P1: one thread, same seeds -> same game
+     *          P2: two threads with an iteration budget -> also the same game on every run
+     */
+    @Test(timeout = TIMEOUT)
+    public void test34_mcts_deterministic() {
+        // P1
+        assertEquals(playWithMcts(5L, 1, 4), playWithMcts(5L, 1, 4));
+
+        // P2
+        assertEquals(playWithMcts(5L, 2, 4), playWithMcts(5L, 2, 4));
+    }
+
+    /**
+     * TEST: a decision leaves the real game untouched and returns a move the player can play
+     *          P1: the game state after selectAction is the state before it
+     *          P2: the command executes (the player builds something)
+     *          P3: no affordable move -> null, the game falls back as it does for the rule agent
+     */
+    @Test(timeout = TIMEOUT)
+    public void test35_mcts_selectAction() {
+        Game game = Simulator.createGame(8L, 25, true);
+        Player white = game.getPlayers().get(Color.WHITE.ordinal());
+        for (Resource r : Resource.values()) game.getResources().giveResources(2, white, r);
+
+        MctsAgent agent = new MctsAgent(game, 1L, 30, 0L, 1, 2);
+        GameSnapshot before = game.snapshot();
+        Command command = agent.selectAction(white, game.getBoard(), game.getResources());
+
+        // P1
+        assertEquals(before, game.snapshot());
+
+        // P2
+        assertNotNull(command);
+        int cardsBefore = white.totalResourceCards();
+        command.execute();
+        assertTrue("the chosen move was paid for", white.totalResourceCards() < cardsBefore);
+
+        // P3
+        for (Resource r : Resource.values()) {
+            game.getResources().spendResources(white.getResourceCount(r), white, r);
+        }
+        assertNull(agent.selectAction(white, game.getBoard(), game.getResources()));
+    }
+}
@@ -0,0 +1,138 @@
+import org.junit.*;
+import static org.junit.Assert.*;
+import java.util.*;
+
+//=========================
+// MoveMakerTests.java
+// Randomized stress tests for MoveMaker.make() / unmake()
+// every make must be taken back exactly: after unmake the game snapshot, the legal moves, the VP ledger and
+// the longest roads must be the ones from before the make, whatever the line of moves was
+//=========================
+
+public class MoveMakerTests {
+
+    private static final int TIMEOUT = 2000;
+    private Game game;
+    private MoveMaker maker;
+    private int[] out;
+
+    /*
+     * a game after its initial placements and a few rounds, with hands topped up from the bank
+     * so long lines of builds are affordable
+     */
+    @Before
+    public void setUp() {
+        game = Simulator.createGame(11L, 25, true);
+        game.getBoard().setLedgerChecks(true);
+        for (int round = 0; round < 3; round++) game.playRound();
+        for (Player p : game.getPlayers()) {
+            for (Resource r : Resource.values()) {
+                game.getResources().giveResources(Math.min(3, game.getResources().getResourceCount(r)), p, r);
+            }
+        }
+        maker = new MoveMaker(game);
+        Board board = game.getBoard();
+        out = new int[2 * board.intersectionCount() + board.edgeCount()];
+    }
+
+    /**
+     * HELPER: everything the board derives from the ownership, per player
+     */
+    private String derived() {
+        Board board = game.getBoard();
+        StringBuilder all = new StringBuilder();
+        for (Player p : game.getPlayers()) {
+            int count = board.getMoves().generate(p, true, true, true, out);
+            for (int k = 0; k < count; k++) all.append(out[k]).append(',');
+            all.append(board.getVictoryPoints(p)).append('/').append(board.getLongestRoad(p)).append(';');
+        }
+        return all.toString();
+    }
+
+    /**
+     * HELPER: makes one random legal move of a random player, false if that player has none it can afford
+     */
+    private boolean makeRandomMove(Random random) {
+        Player p = game.getPlayers().get(random.nextInt(game.getPlayers().size()));
+        int count = game.getBoard().getMoves().generate(p, true, true, true, out);
+        if (count == 0) return false;
+        return maker.make(p, out[random.nextInt(count)]);
+    }
+
+    /**
+     * TEST: random lines of moves are taken back exactly
+     *          P1: after each full unwind the snapshot and the derived board state are the starting ones
+     *          P2: interleaved make/unmake (random walk on the depth) ends where it started
+     */
+    @Test(timeout = TIMEOUT)
+    public void test32_makeUnmake_randomLines() {
+        Random random = new Random(5);
+        GameSnapshot start = game.snapshot();
+        String startDerived = derived();
+
+        // P1
+        for (int line = 0; line < 200; line++) {
+            int length = 1 + random.nextInt(12);
+            for (int k = 0; k < length; k++) makeRandomMove(random);
+            while (maker.getDepth() > 0) maker.unmake();
+            assertEquals("line " + line, start, game.snapshot());
+            assertEquals("line " + line, startDerived, derived());
+        }
+
+        // P2: the state at each depth is remembered and checked again whenever the walk comes back to it
+        List<GameSnapshot> atDepth = new ArrayList<>();
+        atDepth.add(start);
+        for (int step = 0; step < 2000; step++) {
+            if (maker.getDepth() > 0 && random.nextInt(3) == 0) {
+                maker.unmake();
+                atDepth.remove(atDepth.size() - 1);
+                assertEquals("step " + step, atDepth.get(atDepth.size() - 1), game.snapshot());
+            } else if (makeRandomMove(random)) {
+                atDepth.add(game.snapshot());
+            }
+        }
+        while (maker.getDepth() > 0) maker.unmake();
+        assertEquals(start, game.snapshot());
+        assertEquals(startDerived, derived());
+    }
+
+    /**
+     * TEST: a move that can't be made changes nothing
+     *          P1: unaffordable, occupied, unknown type and out of range moves are refused without side effects
+     *          P2: unmake with nothing made is an error
+     */
+    @Test(timeout = TIMEOUT)
+    public void test33_make_refusedMoves() {
+        GameSnapshot start = game.snapshot();
+        Player p = game.getPlayers().get(0);
+        Board board = game.getBoard();
+
+        // P1
+        int owned = -1;
+        for (int n = 0; n < board.intersectionCount(); n++) {
+            if (board.intersectionAt(n).getOwner() != null) { owned = n; break; }
+        }
+        assertFalse(maker.make(p, MoveGenerator.encode(MoveGenerator.SETTLEMENT, owned)));
+        assertFalse(maker.make(p, MoveGenerator.encode(0, 0)));
+        assertFalse(maker.make(p, MoveGenerator.encode(MoveGenerator.ROAD, board.edgeCount())));
+        for (Resource r : Resource.values()) {
+            game.getResources().spendResources(p.getResourceCount(r), p, r);
+        }
+        GameSnapshot broke = game.snapshot();
+        int count = board.getMoves().generate(p, true, true, true, out);
+        for (int k = 0; k < count; k++) {
+            assertFalse("no cards, no build", maker.make(p, out[k]));
+        }
+        assertEquals(broke, game.snapshot());
+        assertEquals(0, maker.getDepth());
+        assertNotEquals(start, broke);
+
+        // P2
+        try {
+            maker.unmake();
+            fail("nothing to unmake");
+        } catch (IllegalStateException expected) {
+            // expected
+        }
+    }
+}
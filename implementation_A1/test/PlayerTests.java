@@ -82,6 +82,7 @@ public class PlayerTests {
     // A) Remove some from a pile that has enough  -> count decreases
     // B) Remove all of a resource                 -> count goes to 0
     // C) For boundary testing add 1 then remove 1 -> back to 0
+    // D) Remove one more than is held             -> refused, nothing changes
     // =================================================================
 
     /**
@@ -106,6 +107,47 @@ public class PlayerTests {
         assertEquals("Should be back to 0 after add(1) then remove(1) resources", 0, player.getResourceCount(Resource.LUMBER));
     }
 
+    /**
+     * TEST: a hand never holds a negative count, the change is refused where it is made
+     *          P1: removing one more than is held throws, and leaves the count, the total and the hand hash as they were
+     *          P2: removing exactly what is held brings the count to 0 and the hand hash back to an empty hand's
+     *          P3: loading a hand with a negative count throws; the bank refuses an overspend without throwing
+     */
+    @Test(timeout = TIMEOUT)
+    public void test50_removeResource_moreThanHeld_refused() {
+        player.addResource(Resource.ORE, 2);
+        long hash = player.getHandHash();
+
+        // P1
+        try {
+            player.removeResource(Resource.ORE, 3);
+            fail("removing 3 ORE from a hand of 2 must be refused");
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+        assertEquals(2, player.getResourceCount(Resource.ORE));
+        assertEquals(2, player.totalResourceCards());
+        assertEquals(hash, player.getHandHash());
+
+        // P2
+        player.removeResource(Resource.ORE, 2);
+        assertEquals(0, player.getResourceCount(Resource.ORE));
+        assertEquals(0, player.totalResourceCards());
+        assertEquals(new Player(Color.ORANGE, 20).getHandHash(), player.getHandHash());
+
+        // P3
+        int[] hand = new int[Resource.values().length];
+        hand[Resource.WOOL.ordinal()] = -1;
+        try {
+            player.loadHand(hand, 0);
+            fail("a negative count must be refused");
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+        assertFalse(Resources.createDefaultCollection().spendResources(1, player, Resource.ORE));
+        assertEquals(0, player.getResourceCount(Resource.ORE));
+    }
+
     // =================================================================
     // GROUP 4: methods for record keeping
     // Partition: any valid integer ID should work without exception
@@ -65,11 +65,11 @@ public class ResourceProductionTests {
     @Test(timeout = TIMEOUT)
     public void test19_produce_noOutput() {
         // P1: roll 7, no tile has token 7 in default board (since 7 triggers robber and has not production) -> false
-        ResourceProduction resourceP = new ResourceProduction(fixedDice(7), bank, board);
+        ResourceProduction resourceP = new ResourceProduction(fixedDice(7), bank, board, new Random(1));
         assertFalse("produce should return false when no tile has the rolled token number 7", resourceP.produce(p1, List.of(p1, p2, p3, p4)));
 
         // P2: roll 6, token 6 tiles exist but nobody has placed a settlement yet -> false
-            resourceP = new ResourceProduction(fixedDice(6), bank, board);
+            resourceP = new ResourceProduction(fixedDice(6), bank, board, new Random(1));
         assertFalse("produce should return false when matching tiles exist but no player occupies", resourceP.produce(p1, List.of(p1, p2, p3, p4)));
     }
 
@@ -99,7 +99,7 @@ public class ResourceProductionTests {
         // P3: place a settlement on the token6 tile, roll 6 -> get exactly 1 resource
         board.buildSettlement(p1, node, true); // it's an initial placement so no road needed
         int before = p1.getResourceCount(expectedResource);
-        ResourceProduction resourceP = new ResourceProduction(fixedDice(6), bank, board);
+        ResourceProduction resourceP = new ResourceProduction(fixedDice(6), bank, board, new Random(1));
         boolean produced = resourceP.produce(p1, List.of(p1, p2, p3, p4));
 
         assertTrue("produce should return true when a player has a settlement on a token6 tile", produced);
@@ -108,14 +108,82 @@ public class ResourceProductionTests {
         // P4: upgrade that same node to a city by rolling 6 again -> get exactly 2 resources
         board.buildCity(p1, node); // upgrade settlement to city
         int beforeCity = p1.getResourceCount(expectedResource);
-        resourceP = new ResourceProduction(fixedDice(6), bank, board);
+        resourceP = new ResourceProduction(fixedDice(6), bank, board, new Random(1));
         resourceP.produce(p1, List.of(p1, p2, p3, p4));
 
         assertEquals("City must yield exactly 2 " + expectedResource + " (it's double a settlement)", beforeCity + 2, p1.getResourceCount(expectedResource));
 
         //drain the expectedResources of the bank by giving them to 1 player so canProvideAll returns false inside produce()
         bank.giveResources(16, p1, expectedResource);
-        ResourceProduction resourceProdDrained = new ResourceProduction(fixedDice(6), bank, board);
+        ResourceProduction resourceProdDrained = new ResourceProduction(fixedDice(6), bank, board, new Random(1));
         assertFalse("produce should return false when bank can't cover demand", resourceProdDrained.produce(p1, List.of(p1, p2, p3, p4)));
     }
+
+    /**
+     * TEST: one ResourceProduction reused across board changes sees every change
+     *          (its per-roll table must be rebuilt after a build, an upgrade and each robber move)
+     */
+    @Test(timeout = TIMEOUT)
+    public void test51_produce_tableFollowsBoard() {
+        Tile tile = board.getTilesByToken(6).get(0);
+        Resource expectedResource = Tile.getResource(tile.getTerrain());
+        Intersection node = findFreeIntersectionOn(tile);
+        ResourceProduction resourceP = new ResourceProduction(fixedDice(6), bank, board, new Random(1));
+
+        // empty board first, so the table is built before anything is placed
+        assertFalse("nobody on the token-6 tiles yet", resourceP.produce(p1, List.of(p1, p2, p3, p4)));
+
+        board.buildSettlement(p2, node, true);
+        assertTrue("new settlement produces", resourceP.produce(p1, List.of(p1, p2, p3, p4)));
+        assertEquals(1, p2.getResourceCount(expectedResource));
+
+        board.buildCity(p2, node);
+        resourceP.produce(p1, List.of(p1, p2, p3, p4));
+        assertEquals("upgrade doubles the output", 3, p2.getResourceCount(expectedResource));
+
+        // robber on the tile blocks it, moving it away restores production
+        Tile previousRobber = board.getRobberTile();
+        board.setRobberTile(tile);
+        resourceP.produce(p1, List.of(p1, p2, p3, p4));
+        assertEquals("robber blocks the tile", 3, p2.getResourceCount(expectedResource));
+        board.setRobberTile(previousRobber);
+        resourceP.produce(p1, List.of(p1, p2, p3, p4));
+        assertEquals("tile produces again", 5, p2.getResourceCount(expectedResource));
+    }
+
+    // =================================================================
+    // GROUP 3: tests for the robber (roll 7)
+    // =================================================================
+
+    /**
+     * TEST: the robber is reproducible with a seeded random source
+     *          P1: two identical boards and hands, same seed -> same robber tile and same hands after a 7
+     *          P2: the player holding 10 cards discards exactly half
+     */
+    @Test(timeout = TIMEOUT)
+    public void test52_robber_seeded() {
+        Board otherBoard = new Board();
+        Resources otherBank = Resources.createDefaultCollection();
+        Player o1 = new Player(Color.ORANGE, 20);
+        Player o2 = new Player(Color.WHITE, 21);
+
+        // same hand of 10 cards for p2 and o2
+        for (Resource r : Resource.values()) {
+            bank.giveResources(2, p2, r);
+            otherBank.giveResources(2, o2, r);
+        }
+
+        new ResourceProduction(fixedDice(7), bank, board, new Random(99)).produce(p1, List.of(p1, p2));
+        new ResourceProduction(fixedDice(7), otherBank, otherBoard, new Random(99)).produce(o1, List.of(o1, o2));
+
+        // P1
+        assertEquals("robber lands on the same tile",
+                board.getTiles().indexOf(board.getRobberTile()), otherBoard.getTiles().indexOf(otherBoard.getRobberTile()));
+        for (Resource r : Resource.values()) {
+            assertEquals("same cards discarded: " + r, p2.getResourceCount(r), o2.getResourceCount(r));
+        }
+
+        // P2
+        assertEquals("10 cards -> 5 discarded", 5, p2.totalResourceCards());
+    }
 }
@@ -0,0 +1,205 @@
+import org.junit.*;
+import static org.junit.Assert.*;
+
+//=========================
+// RuleBasedAgentTests.java
+// Tests for the rule-based agent and the TurnAnalysis its rules share
+// the facts of a turn are computed lazily, at most once, and must match asking the board directly
+//=========================
+
+public class RuleBasedAgentTests {
+
+    private static final int TIMEOUT = 2000;
+
+    /**
+     * TEST: a TurnAnalysis computes each fact once and matches the board
+     *          P1: getLongestRoad asked twice gives board.getLongestRoad both times
+     *          P2: the value is remembered: a road built after the first call doesn't change it, a new analysis sees it
+     *          P3: over a played game, every lazy fact (asked in reverse order) equals the eager board query
+     */
+    @Test(timeout = TIMEOUT)
+    public void test45_turnAnalysis_memoized() {
+        Game game = Simulator.createGame(5L, 25, true);
+        Board board = game.getBoard();
+        Player p = game.getPlayers().get(0);
+        TurnAnalysis turn = new TurnAnalysis(p, board, game.getResources());
+
+        // P1
+        int longest = board.getLongestRoad(p);
+        assertEquals(longest, turn.getLongestRoad(p));
+        assertEquals(longest, turn.getLongestRoad(p));
+
+        // P2
+        int edge = board.getMoves().firstRoad(p);
+        assertTrue("the player can extend a road", edge >= 0);
+        board.edgeAt(edge).setOwner(p);
+        assertEquals("the road extends the trail", longest + 1, board.getLongestRoad(p));
+        assertEquals("the first answer is kept for the turn", longest, turn.getLongestRoad(p));
+        assertEquals(board.getLongestRoad(p), new TurnAnalysis(p, board, game.getResources()).getLongestRoad(p));
+        board.edgeAt(edge).setOwner(null);
+
+        // P3
+        for (int t = 0; t < 60; t++) {
+            game.playNextTurn();
+            for (Player q : game.getPlayers()) {
+                TurnAnalysis lazy = new TurnAnalysis(q, board, game.getResources());
+                for (Player other : game.getPlayers()) {
+                    assertEquals(board.getLongestRoad(other), lazy.getLongestRoad(other));
+                }
+                assertEquals(board.getMoves().firstCityUpgrade(q), lazy.getUpgradableSettlement());
+                assertEquals(board.getMoves().firstSettlementSpot(q), lazy.getSettlementSpot());
+                assertEquals(board.getMoves().firstConnectingRoad(q), lazy.getConnectingEdge());
+                assertEquals(board.getMoves().firstRoad(q), lazy.getRoadEdge());
+                assertEquals(q.totalResourceCards(), lazy.getTotalCards());
+                assertEquals(q.getResourceCount(Resource.ORE) >= 3 && q.getResourceCount(Resource.GRAIN) >= 2,
+                        lazy.canAffordCity());
+                assertEquals(q.getResourceCount(Resource.BRICK) >= 1 && q.getResourceCount(Resource.LUMBER) >= 1,
+                        lazy.canAffordRoad());
+            }
+        }
+    }
+
+    /**
+     * HELPER: the state a command leaves the game in (null command: the state as it is), the game is put back after
+     */
+    private GameSnapshot after(Game game, Command command) {
+        GameSnapshot before = game.snapshot();
+        if (command == null) return before;
+        command.execute();
+        GameSnapshot result = game.snapshot();
+        game.restore(before);
+        return result;
+    }
+
+    /**
+     * TEST: stopping on the rules' upper bounds picks exactly what a full scan of the rules picks
+     *          P1: no rule ever scores above its declared upper bound
+     *          P2: over 300 seeded states with random hands, the pruned agent and the full-scan agent (same tie-break
+     *              seed) play the same command, or both play nothing
+     */
+    @Test(timeout = TIMEOUT)
+    public void test46_upperBounds_prunedMatchesFullScan() {
+        Game game = Simulator.createGame(17L, 25, true);
+        Board board = game.getBoard();
+        Resources bank = game.getResources();
+        java.util.Random hands = new java.util.Random(3L);
+        RuleBasedAgent pruned = new RuleBasedAgent(new java.util.Random(99L), false);
+        RuleBasedAgent full = new RuleBasedAgent(new java.util.Random(99L), false);
+        full.setPruning(false);
+        RuleCollection rules = new RuleCollection();
+
+        int decided = 0;
+        for (int state = 0; state < 300; state++) {
+            Player p = game.getCurrentPlayer();
+            // a fresh random hand of 0-2 cards per resource, mostly under the MustSpend limit
+            for (Resource r : Resource.values()) {
+                bank.spendResources(p.getResourceCount(r), p, r);
+                bank.giveResources(Math.min(hands.nextInt(3), bank.getResourceCount(r)), p, r);
+            }
+
+            // P1
+            RuleIterator iterator = rules.createIterator(new TurnAnalysis(p, board, bank));
+            while (iterator.hasNext()) {
+                double bound = iterator.peekUpperBound();
+                RuleIterator.RuleEvaluation eval = iterator.next();
+                assertTrue(eval.ruleName + " scored " + eval.value + " above its bound " + bound + " in state " + state,
+                        eval.value <= bound);
+            }
+
+            // P2
+            Command a = pruned.selectAction(p, board, bank);
+            Command b = full.selectAction(p, board, bank);
+            assertEquals("state " + state, a == null, b == null);
+            if (a != null) {
+                assertEquals("state " + state, a.name(), b.name());
+                assertEquals("state " + state, after(game, a), after(game, b));
+                decided++;
+            }
+            game.playNextTurn();
+        }
+        assertTrue("the states exercise the rules", decided > 50);
+    }
+
+    /**
+     * TEST: the evaluate/createCommand adapter of the ported rules gives what decide gives
+     *          P1: over a played game with random hands, every rule's evaluate is decide's score
+     *          P2: and its createCommand leaves the game where decide's command leaves it (or both are null)
+     */
+    @Test(timeout = TIMEOUT)
+    public void test47_analysisRules_adapterMatchesDecide() {
+        Game game = Simulator.createGame(23L, 25, true);
+        Board board = game.getBoard();
+        Resources bank = game.getResources();
+        java.util.Random hands = new java.util.Random(8L);
+        Rule[] rules = {new MustSpendRule(), new ConnectRoadsRule(), new DefendLongestRoadRule(),
+                new EarnVPRule(), new BuildSomethingRule(), new SpendToFiveRule()};
+
+        for (int state = 0; state < 120; state++) {
+            Player p = game.getCurrentPlayer();
+            for (Resource r : Resource.values()) {
+                bank.spendResources(p.getResourceCount(r), p, r);
+                bank.giveResources(Math.min(hands.nextInt(4), bank.getResourceCount(r)), p, r);
+            }
+            for (Rule rule : rules) {
+                RuleDecision decision = rule.decide(new TurnAnalysis(p, board, bank));
+                String where = rule.getName() + " in state " + state;
+
+                // P1
+                assertEquals(where, decision.getScore(), rule.evaluate(p, board, bank), 0.0);
+
+                // P2
+                Command adapted = rule.createCommand(p, board, bank);
+                Command decided = decision.createCommand();
+                assertEquals(where, decided == null, adapted == null);
+                if (adapted != null) assertEquals(where, after(game, decided), after(game, adapted));
+            }
+            game.playNextTurn();
+        }
+    }
+
+    /**
+     * TEST: a rule implementing only evaluate/createCommand still works through the default Rule.decide
+     *          P1: decide scores it with evaluate and plays the command of createCommand, on the same state
+     *          P2: the rule iterator hands it out like any other rule
+     *          P3: without an upper bound it is never pruned
+     */
+    @Test(timeout = TIMEOUT)
+    public void test48_legacyRule_defaultDecide() {
+        Game game = Simulator.createGame(5L, 25, true);
+        Board board = game.getBoard();
+        Resources bank = game.getResources();
+        Player p = game.getPlayers().get(0);
+        Command noop = new Go();
+        Rule legacy = new Rule() {
+            @Override
+            public double evaluate(Player player, Board b, Resources resources) {
+                return player.totalResourceCards() + 0.25;
+            }
+
+            @Override
+            public Command createCommand(Player player, Board b, Resources resources) {
+                return player == p && b == board && resources == bank ? noop : null;
+            }
+
+            @Override
+            public String getName() { return "Legacy"; }
+        };
+        TurnAnalysis turn = new TurnAnalysis(p, board, bank);
+
+        // P1
+        RuleDecision decision = legacy.decide(turn);
+        assertEquals(p.totalResourceCards() + 0.25, decision.getScore(), 0.0);
+        assertEquals(RuleDecision.NO_MOVE, decision.getMove());
+        assertSame(noop, decision.createCommand());
+
+        // P2
+        RuleIterator iterator = new RuleIterator(new Rule[] {legacy}, turn);
+        RuleIterator.RuleEvaluation eval = iterator.next();
+        assertEquals("Legacy", eval.ruleName);
+        assertEquals(decision.getScore(), eval.value, 0.0);
+        assertSame(noop, eval.createCommand());
+
+        // P3
+        assertEquals(Double.POSITIVE_INFINITY, legacy.upperBound(), 0.0);
+    }
+}
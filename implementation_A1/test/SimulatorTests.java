@@ -0,0 +1,112 @@
+import org.junit.*;
+import static org.junit.Assert.*;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.Map;
+
+//=========================
+// SimulatorTests.java
+// Tests for the headless batch mode of Simulator and ParallelGameRunner
+// game i of a batch is seeded from the master seed and i only, so the thread count can't change a result
+//=========================
+
+public class SimulatorTests {
+
+    private static final int TIMEOUT = 5000;
+
+    /**
+     * TEST: a batch gives the same per-seed results on 1 and on 4 threads
+     *          P1: game i is seeded with gameSeed(master, i) on both runs
+     *          P2: every game has the same winner, rounds and vpoints
+     */
+    @Test(timeout = TIMEOUT)
+    public void test41_parallelRunner_sameResultsAnyThreads() {
+        GameResult[] single = new ParallelGameRunner(1, 25).run(42L, 16);
+        GameResult[] pooled = new ParallelGameRunner(4, 25).run(42L, 16);
+        assertEquals(16, single.length);
+        assertEquals(16, pooled.length);
+        for (int i = 0; i < single.length; i++) {
+            // P1
+            assertEquals(ParallelGameRunner.gameSeed(42L, i), single[i].getSeed());
+            assertEquals(single[i].getSeed(), pooled[i].getSeed());
+
+            // P2
+            assertEquals("game " + i, single[i].toSummaryLine(), pooled[i].toSummaryLine());
+        }
+    }
+
+    /**
+     * TEST: the config file is read once into a map of its "key: value" lines
+     *          P1: keys are lower-cased, values trimmed, the first line of a key wins
+     *          P2: every setting is parsed from the map, a missing or invalid one gives null
+     *          P3: a missing file gives an empty map
+     */
+    @Test(timeout = TIMEOUT)
+    public void test42_readConfig_onePass() throws IOException {
+        File file = File.createTempFile("config", ".txt");
+        file.deleteOnExit();
+        Files.write(file.toPath(), String.join("\n",
+                "Turns: 30", "mode:  headless ", "games: 12", "seed: abc", "turns: 40", "no setting here").getBytes());
+
+        // P1
+        Map<String, String> config = Simulator.readConfig(file.getPath());
+        assertEquals("30", config.get("turns"));
+        assertEquals("headless", config.get("mode"));
+
+        // P2
+        assertEquals(Integer.valueOf(30), Simulator.readTurnsFromConfig(config));
+        assertEquals(Integer.valueOf(30), Simulator.readTurnsFromConfig(file.getPath()));
+        assertEquals(Integer.valueOf(12), Simulator.readGamesFromConfig(config));
+        assertNull("seed is not a number", Simulator.readSeedFromConfig(config));
+        assertNull("threads is missing", Simulator.readThreadsFromConfig(config));
+
+        // P3
+        assertTrue(Simulator.readConfig(new File(file.getParent(), "missing-config.txt").getPath()).isEmpty());
+    }
+
+    /**
+     * TEST: a headless game plays to the end silently and reports its result
+     *          P1: nothing is written to stdout and gameState.json is not created (or touched)
+     *          P2: the result holds the seed, the winner (most vpoints), the rounds played and each seat's vpoints
+     */
+    @Test(timeout = TIMEOUT)
+    public void test43_headlessGame_silentWithResult() {
+        File json = new File("gameState.json");
+        boolean jsonExisted = json.exists();
+        long jsonModified = json.lastModified();
+
+        PrintStream out = System.out;
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        Game game;
+        System.setOut(new PrintStream(captured));
+        try {
+            game = Simulator.createGame(42L, 25, true);
+            game.start();
+        } finally {
+            System.setOut(out);
+        }
+
+        // P1
+        assertEquals("headless games print nothing", "", captured.toString());
+        assertEquals(jsonExisted, json.exists());
+        assertEquals(jsonModified, json.lastModified());
+
+        // P2
+        GameResult result = game.getResult(42L);
+        assertEquals(42L, result.getSeed());
+        assertEquals(game.getWinner().getColor(), result.getWinner());
+        assertTrue("rounds in [1..25]", result.getRounds() >= 1 && result.getRounds() <= 25);
+        int best = 0;
+        for (Player p : game.getPlayers()) {
+            int vp = result.getVictoryPoints(p.getSeat());
+            assertEquals(game.getVictoryPoints(p), vp);
+            assertTrue("two initial settlements", vp >= 2);
+            best = Math.max(best, vp);
+        }
+        assertEquals(best, result.getVictoryPoints(result.getWinner().ordinal()));
+        assertTrue(result.toSummaryLine().startsWith("seed=42 winner=" + result.getWinner() + " rounds="));
+    }
+}
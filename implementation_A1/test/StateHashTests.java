@@ -0,0 +1,168 @@
+import org.junit.*;
+import static org.junit.Assert.*;
+import java.util.*;
+
+//=========================
+// StateHashTests.java
+// Tests for the Zobrist hash of the game state (Game.getStateHash, StateHash)
+// the board, the bank and the hands update the hash on every change, it must always equal
+// StateHash.compute(), the full recomputation from the pieces, robber, hands and bank
+//=========================
+
+public class StateHashTests {
+
+    private static final int TIMEOUT = 2000;
+    private Game game;
+
+    @Before
+    public void setUp() {
+        game = Simulator.createGame(13L, 25, true);
+    }
+
+    /**
+     * TEST: the incremental hash never drifts from a full recomputation
+     *          P1: after every turn of a played game (builds, production, robber moves, turn advance)
+     *          P2: after every make and unmake of random search lines
+     *          P3: after restores, backwards and forwards
+     */
+    @Test(timeout = TIMEOUT)
+    public void test36_stateHash_matchesRecompute() {
+        assertEquals(StateHash.compute(game), game.getStateHash());
+
+        // P1
+        List<GameSnapshot> played = new ArrayList<>();
+        for (int turn = 0; turn < 80; turn++) {
+            game.playNextTurn();
+            assertEquals("turn " + turn, StateHash.compute(game), game.getStateHash());
+            played.add(game.snapshot());
+        }
+
+        // P2
+        for (Player p : game.getPlayers()) {
+            for (Resource r : Resource.values()) {
+                game.getResources().giveResources(Math.min(3, game.getResources().getResourceCount(r)), p, r);
+            }
+        }
+        MoveMaker maker = new MoveMaker(game);
+        Board board = game.getBoard();
+        int[] out = new int[2 * board.intersectionCount() + board.edgeCount()];
+        Random random = new Random(3);
+        for (int step = 0; step < 500; step++) {
+            if (maker.getDepth() > 0 && random.nextInt(3) == 0) {
+                maker.unmake();
+            } else {
+                Player p = game.getPlayers().get(random.nextInt(game.getPlayers().size()));
+                int count = board.getMoves().generate(p, true, true, true, out);
+                if (count > 0) maker.make(p, out[random.nextInt(count)]);
+            }
+            assertEquals("step " + step, StateHash.compute(game), game.getStateHash());
+        }
+
+        // P3
+        for (int k = 0; k < played.size(); k += 7) {
+            game.restore(played.get(played.size() - 1 - k));
+            assertEquals(StateHash.compute(game), game.getStateHash());
+            game.restore(played.get(k));
+            assertEquals(StateHash.compute(game), game.getStateHash());
+        }
+    }
+
+    /**
+     * TEST: the hash identifies the state, not the way to it
+     *          P1: a make/unmake line, a restore or a clone over the same map gives back the same hash
+     *          P2: the same builds in another order (a transposition) give the same hash
+     *          P3: one card, one road, the robber or the seat to play changes the hash
+     */
+    @Test(timeout = TIMEOUT)
+    public void test37_stateHash_identifiesState() {
+        for (int round = 0; round < 4; round++) game.playRound();
+        Player p = game.getPlayers().get(0);
+        for (Resource r : Resource.values()) game.getResources().giveResources(2, p, r);
+        long start = game.getStateHash();
+        GameSnapshot saved = game.snapshot();
+
+        // P1
+        MoveMaker maker = new MoveMaker(game);
+        Board board = game.getBoard();
+        int[] out = new int[2 * board.intersectionCount() + board.edgeCount()];
+        int count = board.getMoves().generate(p, false, false, true, out);
+        assertTrue("the player has road moves", count >= 2);
+        assertTrue(maker.make(p, out[0]));
+        assertNotEquals(start, game.getStateHash());
+        maker.unmake();
+        assertEquals(start, game.getStateHash());
+
+        game.playRound();
+        game.restore(saved);
+        assertEquals(start, game.getStateHash());
+
+        Game clone = Simulator.createGame(77L, 25, true);
+        clone.restore(saved);
+        assertEquals(start, clone.getStateHash());
+
+        // P2: two roads built both ways round
+        int first = out[0];
+        int second = out[1];
+        assertTrue(maker.make(p, first));
+        assertTrue(maker.make(p, second));
+        long oneWay = game.getStateHash();
+        maker.unmake();
+        maker.unmake();
+        assertTrue(maker.make(p, second));
+        assertTrue(maker.make(p, first));
+        assertEquals(oneWay, game.getStateHash());
+        maker.unmake();
+        maker.unmake();
+
+        // P3
+        Set<Long> seen = new HashSet<>();
+        seen.add(start);
+        game.getResources().spendResources(1, p, Resource.WOOL);
+        assertTrue("one card", seen.add(game.getStateHash()));
+        game.getResources().giveResources(1, p, Resource.WOOL);
+        assertEquals(start, game.getStateHash());
+
+        assertTrue(maker.make(p, first));
+        assertTrue("one road", seen.add(game.getStateHash()));
+        maker.unmake();
+
+        Tile robber = board.getRobberTile();
+        board.setRobberTile(board.tileAt((robber.getTileID() + 1) % board.getTiles().size()));
+        assertTrue("the robber", seen.add(game.getStateHash()));
+        board.setRobberTile(robber);
+        assertEquals(start, game.getStateHash());
+
+        game.playMoveAndEndTurn(RuleDecision.NO_MOVE);
+        assertTrue("the seat to play", seen.add(game.getStateHash()));
+    }
+
+    /**
+     * TEST: every key input must fit its bits, so distinct facts never share a key by overflow
+     *          P1: the largest count and large ids are accepted and keep their keys apart
+     *          P2: a negative count, a count of 2^24 and a negative id fail the key's assert when assertions are on
+     *              (-ea), and never stop the game when they are off; the counts are refused where they change (test50)
+     */
+    @Test(timeout = TIMEOUT)
+    public void test44_stateHash_keyRanges() {
+        // P1
+        assertNotEquals(StateHash.handKey(0, 0, StateHash.MAX_VALUE), StateHash.handKey(0, 1, StateHash.MAX_VALUE));
+        assertNotEquals(StateHash.edgeKey(Integer.MAX_VALUE, 0), StateHash.edgeKey(Integer.MAX_VALUE - 1, 0));
+        assertNotEquals(0L, StateHash.bankKey(4, StateHash.MAX_VALUE));
+
+        // P2
+        boolean asserts = StateHash.class.desiredAssertionStatus();
+        Runnable[] outOfRange = {
+                () -> StateHash.handKey(0, 0, -1),
+                () -> StateHash.handKey(0, 0, StateHash.MAX_VALUE + 1),
+                () -> StateHash.nodeKey(-1 << 8, 0, false)};
+        for (int k = 0; k < outOfRange.length; k++) {
+            boolean failed = false;
+            try {
+                outOfRange[k].run();
+            } catch (AssertionError expected) {
+                failed = true;
+            }
+            assertEquals("key " + k, asserts, failed);
+        }
+    }
+}